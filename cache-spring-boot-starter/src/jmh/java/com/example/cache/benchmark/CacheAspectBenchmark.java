@@ -0,0 +1,137 @@
+package com.example.cache.benchmark;
+
+import com.example.aspect.CacheAspect;
+import com.example.aspect.annotation.GetObjectFromCache;
+import com.example.aspect.annotation.UpdateObjectInCache;
+import com.example.cache.Cache;
+import com.example.cache.CacheRegistry;
+import com.example.cache.impl.CompactLRUCache;
+import com.example.dto.JournalistDto;
+import com.example.dto.NewsDto;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы аспекта кэша на один вызов: прежняя реализация
+ * ({@code JACKSON} - {@link JacksonCacheAspect}) против текущей
+ * ({@code METHOD_HANDLE} - {@link CacheAspect}).
+ * <p>
+ * {@code direct} - вызов метода без прокси, точка отсчета.
+ * <p>
+ * Запуск: {@code ./gradlew :cache-spring-boot-starter:jmh -Pjmh.includes=CacheAspectBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheAspectBenchmark {
+
+    private static final int SIZE = 1_000;
+
+    @Param({"JACKSON", "METHOD_HANDLE"})
+    private String aspect;
+
+    private NewsRepository target;
+    private NewsRepository proxy;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CacheRegistry cacheRegistry = new CacheRegistry(name -> {
+            Cache<Object> cache = new CompactLRUCache<>();
+            cache.setSizeCache(SIZE);
+            return cache;
+        });
+        target = new NewsRepository();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect.equals("JACKSON")
+                ? new JacksonCacheAspect(cacheRegistry.getCache("default"), objectMapper())
+                : new CacheAspect(cacheRegistry, Runnable::run));
+        proxy = factory.getProxy();
+        for (long id = 0; id < SIZE; id++) {
+            proxy.findById(id);
+        }
+    }
+
+    @Benchmark
+    public NewsDto direct() {
+        return target.update(nextId++ % SIZE);
+    }
+
+    /**
+     * Обновление - каждый вызов сохраняет результат в кэш.
+     */
+    @Benchmark
+    public NewsDto update() {
+        return proxy.update(nextId++ % SIZE);
+    }
+
+    /**
+     * Получение объекта, которого нет в кэше, - вызов метода
+     * и сохранение результата с вытеснением.
+     */
+    @Benchmark
+    public NewsDto getMiss() {
+        return proxy.findById(SIZE + nextId++);
+    }
+
+    /**
+     * Получение объекта из кэша.
+     */
+    @Benchmark
+    public NewsDto getHit() {
+        return proxy.findById(nextId++ % SIZE);
+    }
+
+    private static ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        objectMapper.findAndRegisterModules();
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        return objectMapper;
+    }
+
+    public static class NewsRepository {
+
+        private final JournalistDto journalist = new JournalistDto(1L, "journalist", "Minsk",
+                "journalist@mail.com", "+375291234567", LocalDateTime.now());
+
+        @GetObjectFromCache
+        public NewsDto findById(Long id) {
+            return news(id);
+        }
+
+        @UpdateObjectInCache
+        public NewsDto update(Long id) {
+            return news(id);
+        }
+
+        private NewsDto news(Long id) {
+            LocalDateTime now = LocalDateTime.now();
+            return new NewsDto(id, now, now, "Title " + id, "Text of news " + id, journalist);
+        }
+
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.example.cache.benchmark;
+
+import com.example.cache.Cache;
+import com.example.cache.impl.CompactLFUCache;
+import com.example.cache.impl.CompactLRUCache;
+import com.example.cache.impl.StripedCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность потокобезопасных кэшей при смешанной нагрузке
+ * (90% чтений, 10% записей) на общем экземпляре кэша.
+ * <p>
+ * {@code SINGLE_LOCK_LRU} - тот же LRU под одной блокировкой, точка отсчета
+ * для оценки масштабирования сегментированных вариантов.
+ * <p>
+ * Количество потоков в JMH нельзя задать через {@code @Param}, поэтому
+ * прогон от 1 до 64 потоков запускается через {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentCacheBenchmark {
+
+    private static final int SIZE = 100_000;
+    private static final int KEY_SPACE = SIZE * 2;
+
+    @Param({"SINGLE_LOCK_LRU", "CONCURRENT_LRU", "CONCURRENT_LFU"})
+    private String engine;
+
+    private Cache<Object> cache;
+    private Long[] ids;
+    private Object value;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (engine) {
+            case "SINGLE_LOCK_LRU" -> cache = new StripedCache<>(1, CompactLRUCache::new);
+            case "CONCURRENT_LRU" -> cache = new StripedCache<>(CompactLRUCache::new);
+            case "CONCURRENT_LFU" -> cache = new StripedCache<>(CompactLFUCache::new);
+            default -> throw new IllegalArgumentException(engine);
+        }
+        cache.setSizeCache(SIZE);
+        value = new Object();
+        ids = new Long[KEY_SPACE];
+        for (int i = 0; i < KEY_SPACE; i++) {
+            ids[i] = (long) i;
+        }
+        for (int i = 0; i < SIZE; i++) {
+            cache.save(ids[i], value);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+    }
+
+    @Benchmark
+    public Object readMostly(ThreadState state) {
+        Long id = ids[state.random.nextInt(KEY_SPACE)];
+        if (state.random.nextInt(10) == 0) {
+            return cache.save(id, value);
+        }
+        return cache.getById(id);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32, 64}) {
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentCacheBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .output("build/results/jmh/concurrent-cache-" + threads + "-threads.txt")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+}
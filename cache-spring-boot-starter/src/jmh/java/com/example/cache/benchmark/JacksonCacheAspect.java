@@ -0,0 +1,63 @@
+package com.example.cache.benchmark;
+
+import com.example.cache.Cache;
+import com.example.dto.CommentDto;
+import com.example.dto.NewsDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+/**
+ * Прежняя реализация {@link com.example.aspect.CacheAspect} для сравнения:
+ * тип результата определяется по имени класса при каждом вызове, а id
+ * читается через {@link ObjectMapper#convertValue}.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class JacksonCacheAspect {
+
+    private final Cache cache;
+    private final ObjectMapper objectMapper;
+
+    @Around("@annotation(com.example.aspect.annotation.GetObjectFromCache)")
+    public Object doGetProfiling(ProceedingJoinPoint pjp) throws Throwable {
+        Long idForGet = (Long) pjp.getArgs()[0];
+        Object o;
+        o = cache.getById(idForGet);
+        if (o == null) {
+            return profilingAndSaveToCache(pjp);
+        }
+        return o;
+    }
+
+    @Around("@annotation(com.example.aspect.annotation.UpdateObjectInCache)")
+    public Object doUpdateProfiling(ProceedingJoinPoint pjp) throws Throwable {
+        return profilingAndSaveToCache(pjp);
+    }
+
+    private Object profilingAndSaveToCache(ProceedingJoinPoint pjp) throws Throwable {
+        final Signature signature = pjp.getSignature();
+        final Class<?> clazz = ((MethodSignature)signature).getReturnType();
+        if(clazz.getSimpleName().equals("CommentDto")){
+            Object comment = pjp.proceed();
+            CommentDto commentDto = objectMapper.convertValue(comment, CommentDto.class);
+            cache.save(commentDto.getId(), comment);
+            return comment;
+        }
+        else if(clazz.getSimpleName().equals("NewsDto")){
+            Object news = pjp.proceed();
+            NewsDto personDto = objectMapper.convertValue(news, NewsDto.class);
+            cache.save(personDto.getId(), news);
+            return news;
+        }
+        else {
+            Object o = pjp.proceed();
+            return o;
+        }
+    }
+
+}
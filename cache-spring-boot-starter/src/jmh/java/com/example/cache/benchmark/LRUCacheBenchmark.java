@@ -0,0 +1,72 @@
+package com.example.cache.benchmark;
+
+import com.example.cache.Cache;
+import com.example.cache.impl.CompactLRUCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Измеряет время сохранения с вытеснением и получения элемента
+ * в {@link CompactLRUCache} на разных размерах кэша.
+ * <p>
+ * Запуск: {@code ./gradlew :cache-spring-boot-starter:jmh -Pjmh.includes=LRUCacheBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LRUCacheBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private Cache<Object> cache;
+    private Object value;
+    private long nextId;
+    private long hitId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = new CompactLRUCache<>();
+        cache.setSizeCache(size);
+        value = new Object();
+        for (long id = 0; id < size; id++) {
+            cache.save(id, value);
+        }
+        nextId = size;
+    }
+
+    /**
+     * Сохранение нового элемента в заполненный кэш - каждый вызов
+     * приводит к вытеснению.
+     */
+    @Benchmark
+    public Object saveWithEviction() {
+        return cache.save(nextId++, value);
+    }
+
+    /**
+     * Получение элемента, который гарантированно есть в кэше.
+     */
+    @Benchmark
+    public Object getHit() {
+        Object object = cache.getById(nextId - 1 - hitId);
+        hitId = (hitId + 1) % size;
+        return object;
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.example.cache.benchmark;
+
+import com.example.cache.Cache;
+import com.example.cache.impl.CompactLRUCache;
+import com.example.cache.impl.JacksonValueSerializer;
+import com.example.cache.impl.OffHeapCache;
+import com.example.dto.JournalistDto;
+import com.example.dto.NewsDto;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка получения и сохранения новости: кэш в куче ({@code ON_HEAP} -
+ * {@link CompactLRUCache}) против кэша вне кучи ({@code OFF_HEAP} -
+ * {@link OffHeapCache} с JSON). Режим SampleTime показывает перцентили,
+ * поэтому видна цена десериализации при каждом попадании.
+ * <p>
+ * Размер кучи и паузы сборщика мусора для тех же кэшей печатает
+ * {@link com.example.cache.simulator.OffHeapFootprint}.
+ * <p>
+ * Запуск: {@code ./gradlew :cache-spring-boot-starter:jmh -Pjmh.includes=OffHeapCacheBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g", "-XX:MaxDirectMemorySize=2g"})
+public class OffHeapCacheBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    @Param({"ON_HEAP", "OFF_HEAP"})
+    private String engine;
+
+    private Cache<Object> cache;
+    private NewsDto[] news;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = engine.equals("ON_HEAP")
+                ? new CompactLRUCache<>()
+                : new OffHeapCache<>(new JacksonValueSerializer(objectMapper()), 1L << 30, 1 << 20);
+        cache.setSizeCache(size);
+        JournalistDto journalist = new JournalistDto(1L, "journalist", "Minsk",
+                "journalist@mail.com", "+375291234567", LocalDateTime.now());
+        news = new NewsDto[1024];
+        for (int i = 0; i < news.length; i++) {
+            LocalDateTime now = LocalDateTime.now();
+            news[i] = new NewsDto((long) i, now, now, "Title " + i, "Text of news " + i, journalist);
+        }
+        for (long id = 0; id < size; id++) {
+            cache.save(id, news[(int) (id & 1023)]);
+        }
+    }
+
+    /**
+     * Получение объекта из кэша.
+     */
+    @Benchmark
+    public Object getHit() {
+        return cache.getById(nextId++ % size);
+    }
+
+    /**
+     * Замена объекта в заполненном кэше.
+     */
+    @Benchmark
+    public Object save() {
+        long id = nextId++ % size;
+        return cache.save(id, news[(int) (id & 1023)]);
+    }
+
+    private static ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        objectMapper.findAndRegisterModules();
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        return objectMapper;
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.example.cache.simulator;
+
+import com.example.cache.Cache;
+import com.example.cache.impl.CompactLFUCache;
+import com.example.cache.impl.CompactLRUCache;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Печатает, сколько байт кучи занимает служебная часть одного элемента
+ * кэша (индекс, счетчики, время обращения, ссылки списков) при заданном
+ * количестве элементов.
+ * <p>
+ * Все элементы ссылаются на один объект, id - разные объекты Long,
+ * как при вызовах через CacheAspect, поэтому в результат входят только
+ * структуры самого кэша и упакованные id, которые кэш удерживает.
+ * Задача Gradle запускает замер с ParallelGC: после System.gc() он
+ * показывает точный размер живых объектов.
+ * <p>
+ * Запуск: {@code ./gradlew :cache-spring-boot-starter:cacheFootprint -Pentries=1000000}
+ */
+public class CacheFootprint {
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 && !args[0].isBlank() ? Integer.parseInt(args[0]) : 1_000_000;
+        Map<String, Supplier<Cache<Object>>> engines = new LinkedHashMap<>();
+        engines.put("LRU", CompactLRUCache::new);
+        engines.put("LFU", CompactLFUCache::new);
+
+        System.out.printf("%-32s %12s %16s%n", "engine", "entries", "bytes per entry");
+        for (Map.Entry<String, Supplier<Cache<Object>>> engine : engines.entrySet()) {
+            System.out.printf("%-32s %12d %16.1f%n",
+                    engine.getKey(), entries, bytesPerEntry(engine.getValue(), entries));
+        }
+    }
+
+    static double bytesPerEntry(Supplier<Cache<Object>> engine, int entries) {
+        Object value = new Object();
+        long before = usedHeapAfterGc();
+        Cache<Object> cache = engine.get();
+        cache.setSizeCache(entries);
+        for (long id = 0; id < entries; id++) {
+            cache.save(Long.valueOf(id + Integer.MAX_VALUE), value);
+        }
+        long used = usedHeapAfterGc() - before;
+        if (!cache.contains((long) Integer.MAX_VALUE)) {
+            throw new IllegalStateException("Cache evicted entries while filling");
+        }
+        return (double) used / entries;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.example.cache.simulator;
+
+import com.example.cache.Cache;
+import com.example.cache.impl.CompactLRUCache;
+import com.example.cache.impl.JacksonValueSerializer;
+import com.example.cache.impl.OffHeapCache;
+import com.example.dto.JournalistDto;
+import com.example.dto.NewsDto;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Сравнивает кэш в куче ({@link CompactLRUCache}) и вне кучи
+ * ({@link OffHeapCache}) по занятой куче и работе сборщика мусора.
+ * <p>
+ * Каждый кэш заполняется новостями, затем выполняется смешанная нагрузка
+ * (80% чтений, 20% записей новых объектов с вытеснением). Печатается куча
+ * после полной сборки мусора, память вне кучи (direct буферы), количество
+ * и суммарное время сборок мусора за время нагрузки. Каждый кэш лучше
+ * запускать в отдельной JVM: {@code -Pengine=ON_HEAP} или {@code -Pengine=OFF_HEAP}.
+ * <p>
+ * Запуск: {@code ./gradlew :cache-spring-boot-starter:offHeapFootprint -Pentries=1000000 -Pengine=OFF_HEAP}
+ */
+public class OffHeapFootprint {
+
+    private static final long MB = 1024 * 1024;
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 && !args[0].isBlank() ? Integer.parseInt(args[0]) : 1_000_000;
+        String engine = args.length > 1 ? args[1] : "";
+        System.out.printf("%10s %10s %14s %14s %10s %12s%n",
+                "engine", "entries", "heap, MB", "off-heap, MB", "GC count", "GC time, ms");
+        if (engine.isBlank() || engine.equals("ON_HEAP")) {
+            run("ON_HEAP", CompactLRUCache::new, entries);
+        }
+        if (engine.isBlank() || engine.equals("OFF_HEAP")) {
+            JacksonValueSerializer serializer = new JacksonValueSerializer(objectMapper());
+            run("OFF_HEAP", () -> new OffHeapCache<>(serializer, 4L << 30, 1 << 20), entries);
+        }
+    }
+
+    private static void run(String name, Supplier<Cache<Object>> engine, int entries) {
+        long heapBefore = usedHeapAfterGc();
+        Cache<Object> cache = engine.get();
+        cache.setSizeCache(entries);
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 0; id < entries; id++) {
+            cache.save(id, news(id));
+        }
+        long gcCount = gcCount();
+        long gcTime = gcTime();
+        long nextId = entries;
+        for (int i = 0; i < entries * 5; i++) {
+            if (random.nextInt(5) == 0) {
+                cache.save(nextId, news(nextId));
+                nextId++;
+            } else {
+                cache.getById(nextId - 1 - random.nextInt(entries));
+            }
+        }
+        gcCount = gcCount() - gcCount;
+        gcTime = gcTime() - gcTime;
+        long heap = usedHeapAfterGc() - heapBefore;
+        System.out.printf("%10s %10d %14d %14d %10d %12d%n",
+                name, entries, heap / MB, directBytes() / MB, gcCount, gcTime);
+        if (cache.getById(nextId - 1) == null) {
+            throw new IllegalStateException("Cache lost the last saved object");
+        }
+    }
+
+    private static NewsDto news(long id) {
+        LocalDateTime now = LocalDateTime.now();
+        JournalistDto journalist = new JournalistDto(id % 100, "journalist " + id % 100, "Minsk",
+                "journalist@mail.com", "+375291234567", now);
+        return new NewsDto(id, now, now, "Title " + id, "Text of news " + id, journalist);
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long directBytes() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .sum();
+    }
+
+    private static ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        objectMapper.findAndRegisterModules();
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        return objectMapper;
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.example.cache.simulator;
+
+import com.example.cache.Cache;
+import com.example.cache.impl.CompactLFUCache;
+import com.example.cache.impl.CompactLRUCache;
+import com.example.cache.impl.WTinyLFUCache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Прогоняет записанную последовательность обращений через кэши
+ * LRU, LFU и TINYLFU и печатает процент попаданий для каждого размера кэша.
+ * <p>
+ * Трасса - текстовый файл, из каждой строки которого регулярным выражением
+ * извлекается id (первая группа). По умолчанию берется последнее число
+ * в строке, поэтому подходят как файлы "один id на строку", так и логи
+ * сервисов вида {@code Find news with id: 42}. Строки без совпадения
+ * пропускаются.
+ * <p>
+ * Каждое обращение моделирует работу CacheAspect: getById, а при промахе - save.
+ * <p>
+ * Запуск: {@code ./gradlew :cache-spring-boot-starter:traceReplay -Ptrace=logs/news-service/spring-boot-logger.log
+ * -PidPattern="Find news with id: (\d+)"}
+ */
+public class TraceReplay {
+
+    private static final String DEFAULT_ID_PATTERN = "(\\d+)\\D*$";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args[0].isBlank()) {
+            System.err.println("Usage: TraceReplay <trace file> [cache sizes, comma separated] [id regex]");
+            System.exit(1);
+        }
+        int[] sizes = args.length > 1 && !args[1].isBlank()
+                ? Arrays.stream(args[1].split(",")).mapToInt(size -> Integer.parseInt(size.trim())).toArray()
+                : new int[]{100, 1_000, 10_000};
+        Pattern pattern = Pattern.compile(args.length > 2 && !args[2].isBlank() ? args[2] : DEFAULT_ID_PATTERN);
+        long[] trace = readTrace(Path.of(args[0]), pattern);
+        System.out.printf("Trace %s: %d accesses, %d distinct ids%n",
+                args[0], trace.length, Arrays.stream(trace).distinct().count());
+
+        Map<String, Supplier<Cache<Object>>> policies = new LinkedHashMap<>();
+        policies.put("LRU", CompactLRUCache::new);
+        policies.put("LFU", CompactLFUCache::new);
+        policies.put("TINYLFU", WTinyLFUCache::new);
+
+        System.out.printf("%10s", "size");
+        policies.keySet().forEach(name -> System.out.printf("%10s", name));
+        System.out.println();
+        for (int size : sizes) {
+            System.out.printf("%10d", size);
+            for (Supplier<Cache<Object>> policy : policies.values()) {
+                System.out.printf("%9.2f%%", hitRate(policy.get(), size, trace) * 100);
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Возвращает долю попаданий в кэш при прогоне трассы.
+     */
+    static double hitRate(Cache<Object> cache, int size, long[] trace) {
+        cache.setSizeCache(size);
+        Object value = new Object();
+        long hits = 0;
+        for (long id : trace) {
+            if (cache.getById(id) != null) {
+                hits++;
+            } else {
+                cache.save(id, value);
+            }
+        }
+        return trace.length == 0 ? 0 : (double) hits / trace.length;
+    }
+
+    private static long[] readTrace(Path path, Pattern pattern) throws IOException {
+        long[] trace = new long[1024];
+        int length = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = pattern.matcher(line);
+                if (matcher.find()) {
+                    if (length == trace.length) {
+                        trace = Arrays.copyOf(trace, length * 2);
+                    }
+                    trace[length++] = Long.parseLong(matcher.group(1));
+                }
+            }
+        }
+        return Arrays.copyOf(trace, length);
+    }
+
+}
@@ -1,23 +1,36 @@
 package com.example.aspect;
 
-import com.example.cache.Cache;
-import com.example.dto.CommentDto;
-import com.example.dto.NewsDto;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.aspect.annotation.DeleteObjectFromCache;
+import com.example.aspect.annotation.GetObjectFromCache;
+import com.example.aspect.annotation.SaveObjectToCache;
+import com.example.aspect.annotation.UpdateObjectInCache;
+import com.example.cache.CacheRegistry;
+import com.example.cache.CacheStats;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+@Slf4j
 @Aspect
 @RequiredArgsConstructor
 public class CacheAspect {
 
-    private final Cache cache;
-    private final ObjectMapper objectMapper;
+    private final CacheRegistry cacheRegistry;
+    private final Executor refreshExecutor;
+    private final Map<Method, CacheOperation> operations = new ConcurrentHashMap<>();
 
     @Pointcut("@annotation(com.example.aspect.annotation.SaveObjectToCache)")
     public void saveMethod() {
@@ -38,19 +51,23 @@ public class CacheAspect {
     /**
      * Вызывает метод сохранения полученного объекта в кэш.
      */
-    @Around(value = "saveMethod()")
-    public Object doSaveProfiling(ProceedingJoinPoint pjp) throws Throwable {
-        return profilingAndSaveToCache(pjp);
+    @Around(value = "saveMethod() && @annotation(annotation)", argNames = "pjp,annotation")
+    public Object doSaveProfiling(ProceedingJoinPoint pjp, SaveObjectToCache annotation) throws Throwable {
+        CacheOperation operation = operation(pjp, annotation);
+        return profilingAndSaveToCache(pjp, operation);
     }
 
     /**
      * Вызывает метод удаления объекта из кэша по id.
      */
-    @Around(value = "deleteMethod()")
-    public Object doDeleteProfiling(ProceedingJoinPoint pjp) throws Throwable {
-        Long idForDelete = (Long) pjp.getArgs()[0];
+    @Around(value = "deleteMethod() && @annotation(annotation)", argNames = "pjp,annotation")
+    public Object doDeleteProfiling(ProceedingJoinPoint pjp, DeleteObjectFromCache annotation) throws Throwable {
+        CacheOperation operation = operation(pjp, annotation);
+        Long idForDelete = operation.key(pjp.getArgs(), null);
         pjp.proceed();
-        cache.delete(idForDelete);
+        if (idForDelete != null) {
+            operation.cache.delete(idForDelete);
+        }
         return idForDelete;
     }
 
@@ -58,14 +75,32 @@ public class CacheAspect {
      * Получает объект из кеша по id, если такой там есть.
      * Если такого объекта по id в кэше нет - вызывает метод
      * получения объекта из базы данных.
+     * <p>
+     * Если объект скоро устареет - отдает его из кэша и перезагружает
+     * в фоне, повторно вызывая метод, чтобы популярные объекты
+     * не приходилось загружать синхронно. Метод вызывается в потоке пула
+     * без контекста вызывающего кода, поэтому перезагрузку можно
+     * отключить в аннотации ({@link GetObjectFromCache#refreshAhead()}).
+     * <p>
+     * Одновременные промахи по одному id объединяются: метод вызывает
+     * только первый запрос, остальные дожидаются его результата.
      */
-    @Around(value = "getMethod()")
-    public Object doGetProfiling(ProceedingJoinPoint pjp) throws Throwable {
-        Long idForGet = (Long) pjp.getArgs()[0];
+    @Around(value = "getMethod() && @annotation(annotation)", argNames = "pjp,annotation")
+    public Object doGetProfiling(ProceedingJoinPoint pjp, GetObjectFromCache annotation) throws Throwable {
+        CacheOperation operation = operation(pjp, annotation);
+        Long idForGet = operation.key(pjp.getArgs(), null);
+        if (idForGet == null) {
+            return pjp.proceed();
+        }
         Object o;
-        o = cache.getById(idForGet);
-        if (o == null) {
-            return profilingAndSaveToCache(pjp);
+        o = operation.cache.getById(idForGet);
+        if (o == null || !operation.valueType.isInstance(o)) {
+            operation.stats.recordMiss();
+            return load(pjp, operation, idForGet);
+        }
+        operation.stats.recordHit();
+        if (operation.refreshAhead && operation.cache.needsRefresh(idForGet)) {
+            refreshAhead(pjp, operation, idForGet);
         }
         return o;
     }
@@ -73,30 +108,116 @@ public class CacheAspect {
     /**
      * Вызывает метод обновления переданного объекта в кэше.
      */
-    @Around(value = "updateMethod()")
-    public Object doUpdateProfiling(ProceedingJoinPoint pjp) throws Throwable {
-        return profilingAndSaveToCache(pjp);
+    @Around(value = "updateMethod() && @annotation(annotation)", argNames = "pjp,annotation")
+    public Object doUpdateProfiling(ProceedingJoinPoint pjp, UpdateObjectInCache annotation) throws Throwable {
+        CacheOperation operation = operation(pjp, annotation);
+        return profilingAndSaveToCache(pjp, operation);
+    }
+
+    /**
+     * Возвращает описание кэшируемого метода, при первом вызове
+     * метода разбирает его аннотацию.
+     */
+    private CacheOperation operation(ProceedingJoinPoint pjp, Annotation annotation) {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        CacheOperation operation = operations.get(method);
+        if (operation == null) {
+            operation = operations.computeIfAbsent(method, m -> compile(m, annotation));
+        }
+        return operation;
     }
 
-    private Object profilingAndSaveToCache(ProceedingJoinPoint pjp) throws Throwable {
-        final Signature signature = pjp.getSignature();
-        final Class<?> clazz = ((MethodSignature)signature).getReturnType();
-        if(clazz.getSimpleName().equals("CommentDto")){
-            Object comment = pjp.proceed();
-            CommentDto commentDto = objectMapper.convertValue(comment, CommentDto.class);
-            cache.save(commentDto.getId(), comment);
-            return comment;
+    private CacheOperation compile(Method method, Annotation annotation) {
+        if (annotation instanceof GetObjectFromCache get) {
+            return CacheOperation.of(method, cacheRegistry.getCache(get.cacheName()),
+                    cacheRegistry.getStats(get.cacheName()), get.key(), get.type(),
+                    get.timeUnit().toMillis(get.ttl()), false, get.refreshAhead());
+        }
+        if (annotation instanceof SaveObjectToCache save) {
+            return CacheOperation.of(method, cacheRegistry.getCache(save.cacheName()),
+                    cacheRegistry.getStats(save.cacheName()), save.key(), save.type(),
+                    save.timeUnit().toMillis(save.ttl()), true, false);
+        }
+        if (annotation instanceof UpdateObjectInCache update) {
+            return CacheOperation.of(method, cacheRegistry.getCache(update.cacheName()),
+                    cacheRegistry.getStats(update.cacheName()), update.key(), update.type(),
+                    update.timeUnit().toMillis(update.ttl()), true, false);
         }
-        else if(clazz.getSimpleName().equals("NewsDto")){
-            Object news = pjp.proceed();
-            NewsDto personDto = objectMapper.convertValue(news, NewsDto.class);
-            cache.save(personDto.getId(), news);
-            return news;
+        DeleteObjectFromCache delete = (DeleteObjectFromCache) annotation;
+        return CacheOperation.of(method, cacheRegistry.getCache(delete.cacheName()),
+                cacheRegistry.getStats(delete.cacheName()), delete.key(), Object.class, 0L, false, false);
+    }
+
+    /**
+     * Загружает объект, если его еще никто не загружает, иначе
+     * дожидается чужой загрузки. Загрузка удаляется из списка текущих
+     * только после сохранения объекта в кэш, поэтому запрос, пришедший
+     * после нее, найдет объект в кэше.
+     */
+    private Object load(ProceedingJoinPoint pjp, CacheOperation operation, Long id) throws Throwable {
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = operation.loads.putIfAbsent(id, load);
+        if (inFlight != null) {
+            return await(operation, inFlight);
         }
-        else {
-            Object o = pjp.proceed();
+        try {
+            Object o = operation.cache.getById(id);
+            if (o == null || !operation.valueType.isInstance(o)) {
+                o = pjp.proceed();
+                operation.save(id, o);
+                operation.stats.recordLoad(true);
+            }
+            load.complete(o);
             return o;
+        } catch (Throwable e) {
+            operation.stats.recordLoad(false);
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            operation.loads.remove(id, load);
+        }
+    }
+
+    private Object await(CacheOperation operation, CompletableFuture<Object> inFlight) throws Throwable {
+        operation.stats.recordCoalescedWait();
+        long start = System.nanoTime();
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        } finally {
+            operation.stats.recordCoalescedWaitTime(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Перезагружает объект в фоне. Если перезагрузка не удалась
+     * или очередь перезагрузок заполнена - объект просто
+     * устареет и будет загружен при следующем обращении.
+     * Пропущенные перезагрузки считаются в {@link CacheStats}.
+     */
+    private void refreshAhead(ProceedingJoinPoint pjp, CacheOperation operation, Long id) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    operation.save(id, pjp.proceed());
+                } catch (Throwable e) {
+                    log.warn("Refresh of object with id {} failed", id, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            operation.stats.recordDroppedRefresh();
+            log.debug("Refresh of object with id {} dropped, refresh queue is full", id);
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Вызывает метод и сохраняет полученный объект в кэш по его id.
+     */
+    private Object profilingAndSaveToCache(ProceedingJoinPoint pjp, CacheOperation operation) throws Throwable {
+        Object o = pjp.proceed();
+        operation.save(operation.key(pjp.getArgs(), o), o);
+        return o;
+    }
+
+}
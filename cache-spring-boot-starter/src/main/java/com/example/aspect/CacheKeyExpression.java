@@ -0,0 +1,152 @@
+package com.example.aspect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+
+/**
+ * Выражение для id объекта в кэше, разобранное один раз для метода.
+ * <p>
+ * Поддерживаемый вид: {@code #имяПараметра}, {@code #p0} / {@code #a0}
+ * (параметр по номеру) или {@code #result} (результат метода), за которыми
+ * может следовать цепочка свойств через точку: {@code #news.journalist.id}.
+ * Каждое свойство - getter, метод записи (record) или поле, которое
+ * заранее превращается в {@link MethodHandle}, поэтому при вызове
+ * метода выражение только вычисляется, без разбора и поиска по имени.
+ */
+final class CacheKeyExpression {
+
+    private static final int RESULT = -1;
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final int source;
+    private final MethodHandle[] path;
+
+    private CacheKeyExpression(int source, MethodHandle[] path) {
+        this.source = source;
+        this.path = path;
+    }
+
+    /**
+     * Разбирает выражение для метода.
+     * <p>
+     * Пустое выражение - первый параметр метода, а если выражению
+     * доступен результат - id результата (см. {@link CacheKeyExtractor}).
+     *
+     * @param resultAllowed доступен ли в выражении результат метода
+     * @return выражение или null, если у результата нет id
+     * @throws IllegalStateException если выражение некорректно для этого метода
+     */
+    static CacheKeyExpression compile(Method method, String expression, Class<?> valueType, boolean resultAllowed) {
+        if (expression.isBlank()) {
+            if (resultAllowed) {
+                CacheKeyExtractor extractor = CacheKeyExtractor.forType(valueType);
+                return extractor.hasKey() ? new CacheKeyExpression(RESULT, new MethodHandle[]{extractor.getter}) : null;
+            }
+            if (method.getParameterCount() == 0) {
+                throw invalid(method, expression, "method has no parameters");
+            }
+            CacheKeyExtractor.checkKeyType(method.getDeclaringClass(), method.getParameterTypes()[0]);
+            return new CacheKeyExpression(0, new MethodHandle[0]);
+        }
+        if (!expression.startsWith("#")) {
+            throw invalid(method, expression, "expression must start with #");
+        }
+        String[] parts = expression.substring(1).split("\\.");
+        int source;
+        Class<?> type;
+        if (parts[0].equals("result")) {
+            if (!resultAllowed) {
+                throw invalid(method, expression, "result is not available");
+            }
+            source = RESULT;
+            type = valueType;
+        } else {
+            source = parameterIndex(method, parts[0]);
+            if (source < 0) {
+                throw invalid(method, expression, "unknown parameter " + parts[0]);
+            }
+            type = method.getParameterTypes()[source];
+        }
+        MethodHandle[] path = new MethodHandle[parts.length - 1];
+        for (int i = 1; i < parts.length; i++) {
+            MethodHandle getter = property(type, parts[i]);
+            if (getter == null) {
+                throw invalid(method, expression, "unknown property " + parts[i] + " of " + type.getName());
+            }
+            type = getter.type().returnType();
+            path[i - 1] = getter.asType(CacheKeyExtractor.GETTER_TYPE);
+        }
+        if (!CacheKeyExtractor.isKeyType(type)) {
+            throw invalid(method, expression, "key must be Long, but was " + type.getName());
+        }
+        return new CacheKeyExpression(source, path);
+    }
+
+    /**
+     * Вычисляет id. Если по пути встречается null - возвращает null.
+     */
+    Long evaluate(Object[] args, Object result) throws Throwable {
+        Object value = source == RESULT ? result : args[source];
+        for (MethodHandle getter : path) {
+            if (value == null) {
+                return null;
+            }
+            value = (Object) getter.invokeExact(value);
+        }
+        return (Long) value;
+    }
+
+    private static int parameterIndex(Method method, String name) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].isNamePresent() && parameters[i].getName().equals(name)) {
+                return i;
+            }
+        }
+        if (name.length() > 1 && (name.charAt(0) == 'p' || name.charAt(0) == 'a')) {
+            try {
+                int index = Integer.parseInt(name.substring(1));
+                return index < parameters.length ? index : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static MethodHandle property(Class<?> type, String name) {
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        try {
+            for (String candidate : new String[]{"get" + capitalized, "is" + capitalized, name}) {
+                try {
+                    Method getter = type.getMethod(candidate);
+                    getter.trySetAccessible();
+                    return LOOKUP.unreflect(getter);
+                } catch (NoSuchMethodException e) {
+                    // пробуем следующий вариант имени
+                }
+            }
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                try {
+                    Field field = c.getDeclaredField(name);
+                    field.setAccessible(true);
+                    return LOOKUP.unreflectGetter(field);
+                } catch (NoSuchFieldException e) {
+                    // ищем поле в родительском классе
+                }
+            }
+            return null;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Property " + name + " of " + type.getName() + " is not accessible", e);
+        }
+    }
+
+    private static IllegalStateException invalid(Method method, String expression, String reason) {
+        return new IllegalStateException("Invalid cache key '" + expression + "' for "
+                + method.getDeclaringClass().getSimpleName() + "." + method.getName() + ": " + reason);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.example.aspect;
+
+import com.example.aspect.annotation.CacheKey;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Достает id из объекта, который вернул кэшируемый метод.
+ * <p>
+ * Способ получения id определяется один раз для типа объекта
+ * и сохраняется как {@link MethodHandle}: поле или метод с {@link CacheKey},
+ * иначе метод getId(). Если у типа нет id - объекты этого типа
+ * не кэшируются по результату.
+ */
+final class CacheKeyExtractor {
+
+    static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    final MethodHandle getter;
+
+    private CacheKeyExtractor(MethodHandle getter) {
+        this.getter = getter;
+    }
+
+    /**
+     * Определяет способ получения id для объектов переданного типа.
+     *
+     * @throws IllegalStateException если {@link CacheKey} стоит на значении не типа Long
+     */
+    static CacheKeyExtractor forType(Class<?> type) {
+        return new CacheKeyExtractor(resolve(type));
+    }
+
+    /**
+     * Возвращает true, если у объектов этого типа есть id.
+     */
+    boolean hasKey() {
+        return getter != null;
+    }
+
+    /**
+     * Возвращает id объекта или null, если объект
+     * не может быть сохранен в кэш.
+     */
+    Long extract(Object value) throws Throwable {
+        if (value == null || getter == null) {
+            return null;
+        }
+        return (Long) (Object) getter.invokeExact(value);
+    }
+
+    private static MethodHandle resolve(Class<?> type) {
+        try {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Method method : c.getDeclaredMethods()) {
+                    if (method.isAnnotationPresent(CacheKey.class) && method.getParameterCount() == 0) {
+                        checkKeyType(type, method.getReturnType());
+                        method.setAccessible(true);
+                        return LOOKUP.unreflect(method).asType(GETTER_TYPE);
+                    }
+                }
+                for (Field field : c.getDeclaredFields()) {
+                    if (field.isAnnotationPresent(CacheKey.class)) {
+                        checkKeyType(type, field.getType());
+                        field.setAccessible(true);
+                        return LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+                    }
+                }
+            }
+            Method getId = type.getMethod("getId");
+            if (Modifier.isStatic(getId.getModifiers()) || !isKeyType(getId.getReturnType())) {
+                return null;
+            }
+            getId.trySetAccessible();
+            return LOOKUP.unreflect(getId).asType(GETTER_TYPE);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cache key of " + type.getName() + " is not accessible", e);
+        }
+    }
+
+    static void checkKeyType(Class<?> type, Class<?> keyType) {
+        if (!isKeyType(keyType)) {
+            throw new IllegalStateException("Cache key of " + type.getName() + " must be Long, but was " + keyType.getName());
+        }
+    }
+
+    static boolean isKeyType(Class<?> keyType) {
+        return keyType == Long.class || keyType == long.class;
+    }
+
+}
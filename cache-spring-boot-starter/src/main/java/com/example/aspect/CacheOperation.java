@@ -0,0 +1,68 @@
+package com.example.aspect;
+
+import com.example.cache.Cache;
+import com.example.cache.CacheStats;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Все, что аспекту нужно знать о кэшируемом методе: кэш, разобранное
+ * выражение для id, тип объектов, время жизни и нужна ли перезагрузка в фоне. Создается один раз
+ * при первом вызове метода.
+ * <p>
+ * Также хранит загрузки объектов, которые выполняются прямо сейчас,
+ * чтобы одновременные промахи по одному id ждали одну загрузку.
+ */
+final class CacheOperation {
+
+    final Cache<Object> cache;
+    final CacheStats stats;
+    final CacheKeyExpression key;
+    final Class<?> valueType;
+    final long ttlMillis;
+    final boolean refreshAhead;
+    final Map<Long, CompletableFuture<Object>> loads;
+
+    private CacheOperation(Cache<Object> cache, CacheStats stats, CacheKeyExpression key,
+                           Class<?> valueType, long ttlMillis, boolean refreshAhead) {
+        this.cache = cache;
+        this.stats = stats;
+        this.key = key;
+        this.valueType = valueType;
+        this.ttlMillis = ttlMillis;
+        this.refreshAhead = refreshAhead;
+        this.loads = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param type          тип объектов из аннотации, Object - тип результата метода
+     * @param resultAllowed доступен ли в выражении для id результат метода
+     * @param refreshAhead  перезагружать ли объект в фоне, когда он скоро устареет
+     */
+    static CacheOperation of(Method method, Cache<Object> cache, CacheStats stats, String key, Class<?> type,
+                             long ttlMillis, boolean resultAllowed, boolean refreshAhead) {
+        Class<?> valueType = type == Object.class ? method.getReturnType() : type;
+        return new CacheOperation(cache, stats, CacheKeyExpression.compile(method, key, valueType, resultAllowed),
+                valueType, ttlMillis, refreshAhead);
+    }
+
+    /**
+     * Вычисляет id объекта, null - объект не кэшируется.
+     */
+    Long key(Object[] args, Object result) throws Throwable {
+        return key == null ? null : key.evaluate(args, result);
+    }
+
+    /**
+     * Сохраняет результат метода в кэш, если он подходящего типа.
+     */
+    void save(Long id, Object value) {
+        if (id != null && valueType.isInstance(value)) {
+            cache.save(id, value, ttlMillis);
+        }
+    }
+
+}
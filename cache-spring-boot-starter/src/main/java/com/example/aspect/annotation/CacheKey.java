@@ -0,0 +1,16 @@
+package com.example.aspect.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Помечает поле или метод без параметров, значение которого (Long)
+ * является id объекта в кэше. Если в классе нет такого поля или метода -
+ * id берется из метода getId().
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheKey {
+}
@@ -8,4 +8,17 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface DeleteObjectFromCache {
+
+    /**
+     * Имя кэша, у каждого имени свой кэш со своим размером (cache.sizes.имя).
+     */
+    String cacheName() default "default";
+
+    /**
+     * Выражение для id удаляемого объекта из параметров метода:
+     * {@code #commentId}, {@code #news.id}, {@code #p1} (параметр по номеру).
+     * По умолчанию - первый параметр метода.
+     */
+    String key() default "";
+
 }
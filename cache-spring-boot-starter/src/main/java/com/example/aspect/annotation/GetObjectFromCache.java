@@ -4,8 +4,45 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
 
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface GetObjectFromCache {
+
+    /**
+     * Имя кэша, у каждого имени свой кэш со своим размером (cache.sizes.имя).
+     */
+    String cacheName() default "default";
+
+    /**
+     * Выражение для id объекта из параметров метода: {@code #commentId},
+     * {@code #news.id}, {@code #p1} (параметр по номеру). По умолчанию -
+     * первый параметр метода.
+     */
+    String key() default "";
+
+    /**
+     * Тип объектов в кэше, по умолчанию - тип результата метода.
+     * Результаты другого типа в кэш не сохраняются.
+     */
+    Class<?> type() default Object.class;
+
+    /**
+     * Время жизни объекта в кэше, 0 - время жизни кэша по умолчанию (cache.ttl).
+     */
+    long ttl() default 0;
+
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    /**
+     * Перезагружать ли объект в фоне, когда он скоро устареет. Метод
+     * вызывается повторно в потоке пула после того, как вызывающий код
+     * получил ответ: без атрибутов запроса, контекста безопасности и
+     * транзакции вызывающего кода. Методы, которые от них зависят,
+     * должны отключать перезагрузку - тогда устаревший объект
+     * загружается при следующем обращении.
+     */
+    boolean refreshAhead() default true;
+
 }
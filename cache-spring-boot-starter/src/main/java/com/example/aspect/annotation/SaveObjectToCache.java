@@ -4,8 +4,35 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
 
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface SaveObjectToCache {
+
+    /**
+     * Имя кэша, у каждого имени свой кэш со своим размером (cache.sizes.имя).
+     */
+    String cacheName() default "default";
+
+    /**
+     * Выражение для id объекта из параметров метода или результата:
+     * {@code #id}, {@code #result.id}, {@code #p1} (параметр по номеру).
+     * По умолчанию - id результата (см. {@link CacheKey}).
+     */
+    String key() default "";
+
+    /**
+     * Тип объектов в кэше, по умолчанию - тип результата метода.
+     * Результаты другого типа в кэш не сохраняются.
+     */
+    Class<?> type() default Object.class;
+
+    /**
+     * Время жизни объекта в кэше, 0 - время жизни кэша по умолчанию (cache.ttl).
+     */
+    long ttl() default 0;
+
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
 }
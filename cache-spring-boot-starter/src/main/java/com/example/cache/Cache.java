@@ -10,4 +10,29 @@ public interface Cache<T> {
 
     void setSizeCache(Integer sizeCache);
 
+    /**
+     * Проверяет, есть ли объект с таким id в кэше,
+     * не считая это обращением к объекту.
+     */
+    boolean contains(Long id);
+
+    /**
+     * Сохраняет объект с собственным временем жизни.
+     * Кэши без поддержки времени жизни игнорируют его.
+     *
+     * @param ttlMillis время жизни в миллисекундах, 0 - время жизни кэша по умолчанию
+     */
+    default T save(Long id, T o, long ttlMillis) {
+        return save(id, o);
+    }
+
+    /**
+     * Возвращает true, если объект скоро устареет и его пора перезагрузить
+     * в фоне. Для каждого сохраненного объекта возвращает true не более
+     * одного раза, чтобы перезагрузку запустил только один запрос.
+     */
+    default boolean needsRefresh(Long id) {
+        return false;
+    }
+
 }
@@ -0,0 +1,69 @@
+package com.example.cache;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Кэши по именам. Кэш создается при первом обращении к имени,
+ * у каждого имени свой экземпляр кэша со своим размером и счетчиками.
+ */
+public class CacheRegistry {
+
+    private final Function<String, Cache<Object>> factory;
+    private final Map<String, Cache<Object>> caches;
+    private final Map<String, CacheStats> stats;
+    private final List<Consumer<String>> listeners;
+
+    /**
+     * @param factory создает кэш для переданного имени
+     */
+    public CacheRegistry(Function<String, Cache<Object>> factory) {
+        this.factory = factory;
+        this.caches = new ConcurrentHashMap<>();
+        this.stats = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Возвращает кэш с переданным именем, создавая его при необходимости.
+     */
+    public Cache<Object> getCache(String name) {
+        return caches.computeIfAbsent(name, this::create);
+    }
+
+    /**
+     * Возвращает счетчики кэша с переданным именем.
+     */
+    public CacheStats getStats(String name) {
+        return stats.computeIfAbsent(name, n -> new CacheStats());
+    }
+
+    /**
+     * Возвращает имена созданных кэшей.
+     */
+    public Set<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * Передает в listener имена всех созданных и создаваемых в дальнейшем кэшей.
+     */
+    public void forEachCache(Consumer<String> listener) {
+        listeners.add(listener);
+        caches.keySet().forEach(listener);
+    }
+
+    private Cache<Object> create(String name) {
+        Cache<Object> cache = factory.apply(name);
+        getStats(name);
+        listeners.forEach(listener -> listener.accept(name));
+        return cache;
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.example.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики обращений к кэшу с одним именем.
+ * <p>
+ * Ожидание - запрос, который не нашел объект в кэше, но не стал загружать
+ * его сам, а дождался загрузки, уже начатой другим запросом.
+ */
+public class CacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder coalescedWaits = new LongAdder();
+    private final LongAdder coalescedWaitNanos = new LongAdder();
+    private final LongAdder droppedRefreshes = new LongAdder();
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordLoad(boolean success) {
+        (success ? loads : loadFailures).increment();
+    }
+
+    /**
+     * Учитывает начало ожидания чужой загрузки.
+     */
+    public void recordCoalescedWait() {
+        coalescedWaits.increment();
+    }
+
+    /**
+     * Учитывает время, которое запрос прождал чужую загрузку.
+     */
+    public void recordCoalescedWaitTime(long nanos) {
+        coalescedWaitNanos.add(nanos);
+    }
+
+    /**
+     * Учитывает перезагрузку в фоне, пропущенную из-за заполненной очереди.
+     */
+    public void recordDroppedRefresh() {
+        droppedRefreshes.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getLoadFailures() {
+        return loadFailures.sum();
+    }
+
+    public long getCoalescedWaits() {
+        return coalescedWaits.sum();
+    }
+
+    public long getCoalescedWaitNanos() {
+        return coalescedWaitNanos.sum();
+    }
+
+    public long getDroppedRefreshes() {
+        return droppedRefreshes.sum();
+    }
+
+}
@@ -2,8 +2,14 @@ package com.example.cache.conditional;
 
 import com.example.aspect.CacheAspect;
 import com.example.cache.Cache;
-import com.example.cache.impl.LFUCache;
-import com.example.cache.impl.LRUCache;
+import com.example.cache.CacheRegistry;
+import com.example.cache.impl.CompactLFUCache;
+import com.example.cache.impl.CompactLRUCache;
+import com.example.cache.impl.ExpiringCache;
+import com.example.cache.impl.JacksonValueSerializer;
+import com.example.cache.impl.OffHeapCache;
+import com.example.cache.impl.StripedCache;
+import com.example.cache.impl.WTinyLFUCache;
 import com.example.util.Constants;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
@@ -14,6 +20,13 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
 
 @Configuration
 public class CacheFactory {
@@ -24,24 +37,107 @@ public class CacheFactory {
     @Value("${cache.size:5}")
     private Integer sizeCache;
 
+    @Value("${cache.ttl:0s}")
+    private Duration ttlCache;
+
+    @Value("${cache.refresh-ahead:0.8}")
+    private double refreshAhead;
+
+    @Value("${cache.refresh-threads:2}")
+    private Integer refreshThreads;
+
+    @Value("${cache.refresh-queue-capacity:100}")
+    private Integer refreshQueueCapacity;
+
+    @Value("${cache.off-heap.capacity:64MB}")
+    private DataSize offHeapCapacity;
+
+    @Value("${cache.off-heap.slab-size:1MB}")
+    private DataSize offHeapSlabSize;
+
     @Bean
     @Conditional(CacheConditional.class)
-    public CacheAspect cacheAspect() {
-        Cache cache = null;
+    public CacheAspect cacheAspect(CacheRegistry cacheRegistry) {
+        return new CacheAspect(cacheRegistry, cacheRefreshExecutor());
+    }
+
+    /**
+     * Кэши по именам из аннотаций. Размер кэша задается
+     * свойством cache.sizes.имя, по умолчанию - cache.size.
+     */
+    @Bean
+    @Conditional(CacheConditional.class)
+    public CacheRegistry cacheRegistry(Environment environment) {
+        return new CacheRegistry(name -> createCache(
+                environment.getProperty("cache.sizes." + name, Integer.class, sizeCache)));
+    }
+
+    /**
+     * Пул потоков для перезагрузки объектов кэша заранее.
+     * Если пул и очередь (cache.refresh-queue-capacity) заняты -
+     * пул отклоняет перезагрузку, и аспект ее пропускает.
+     */
+    @Bean
+    @Conditional(CacheConditional.class)
+    public ThreadPoolTaskExecutor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(refreshThreads);
+        executor.setMaxPoolSize(refreshThreads);
+        executor.setQueueCapacity(refreshQueueCapacity);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setDaemon(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    @Bean
+    @Profile("test")
+    public ObjectMapper objectMapper(){
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        objectMapper.findAndRegisterModules();
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        return objectMapper;
+    }
+
+    private Cache<Object> createCache(Integer size) {
+        Cache<Object> cache;
+        if (typeCache.equals(Constants.CACHE_TYPE_CONCURRENT_LRU)) {
+            cache = new StripedCache<>(expiring(CompactLRUCache::new));
+        } else if (typeCache.equals(Constants.CACHE_TYPE_CONCURRENT_LFU)) {
+            cache = new StripedCache<>(expiring(CompactLFUCache::new));
+        } else {
+            // объекты перезагружаются в фоновом потоке, поэтому
+            // однопоточный кэш закрывается одной блокировкой
+            cache = new StripedCache<>(1, expiring(engine()));
+        }
+        cache.setSizeCache(size);
+        return cache;
+    }
+
+    private Supplier<Cache<Object>> engine() {
         if (typeCache.equals(Constants.CACHE_TYPE_LRU)) {
-            cache = new LRUCache();
-            cache.setSizeCache(sizeCache);
+            return CompactLRUCache::new;
         }
         if (typeCache.equals(Constants.CACHE_TYPE_LFU)) {
-            cache = new LFUCache();
-            cache.setSizeCache(sizeCache);
+            return CompactLFUCache::new;
+        }
+        if (typeCache.equals(Constants.CACHE_TYPE_TINYLFU)) {
+            return WTinyLFUCache::new;
         }
-        return new CacheAspect(cache, objectMapper());
+        if (typeCache.equals(Constants.CACHE_TYPE_OFF_HEAP)) {
+            JacksonValueSerializer serializer = new JacksonValueSerializer(offHeapObjectMapper());
+            return () -> new OffHeapCache<>(serializer, offHeapCapacity.toBytes(),
+                    Math.toIntExact(offHeapSlabSize.toBytes()));
+        }
+        throw new IllegalArgumentException("Unknown cache type: " + typeCache);
     }
 
-    @Bean
-    @Profile("test")
-    public ObjectMapper objectMapper(){
+    /**
+     * ObjectMapper только для значений кэша вне кучи, не зависит
+     * от настроек ObjectMapper приложения.
+     */
+    private static ObjectMapper offHeapObjectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
         objectMapper.findAndRegisterModules();
@@ -49,4 +145,12 @@ public class CacheFactory {
         return objectMapper;
     }
 
+    /**
+     * Добавляет к кэшу время жизни элементов: общее (cache.ttl)
+     * и заданное в аннотации метода.
+     */
+    private Supplier<Cache<Object>> expiring(Supplier<Cache<Object>> engine) {
+        return () -> new ExpiringCache<>(engine.get(), ttlCache, refreshAhead);
+    }
+
 }
@@ -0,0 +1,23 @@
+package com.example.cache.conditional;
+
+import com.example.cache.CacheRegistry;
+import com.example.cache.metrics.CacheMeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Регистрирует метрики кэшей, если в приложении есть Micrometer.
+ */
+@Configuration
+@Conditional(CacheConditional.class)
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+public class CacheMetricsConfiguration {
+
+    @Bean
+    public CacheMeterBinder cacheMeterBinder(CacheRegistry cacheRegistry) {
+        return new CacheMeterBinder(cacheRegistry);
+    }
+
+}
@@ -0,0 +1,332 @@
+package com.example.cache.impl;
+
+import com.example.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+/**
+ * LFU кэш без объектов на каждый элемент и на каждую корзину.
+ * <p>
+ * Индекс по id - {@link LongIntHashMap}, который возвращает номер ячейки
+ * элемента. В ячейках параллельных массивов хранятся id, объект, счетчик
+ * обращений, порядковый номер добавления, номер корзины и ссылки списка
+ * корзины. Корзины (элементы с одинаковым счетчиком) тоже лежат в массивах:
+ * голова, хвост и соседние корзины. Счетчик корзины - счетчик любого ее элемента, пустые корзины
+ * сразу освобождаются.
+ * <p>
+ * Из элементов с самым маленьким количеством обращений вытесняется
+ * самый последний добавленный в кэш: корзины
+ * упорядочены по номеру добавления, при обращении место элемента в новой
+ * корзине ищется от ее хвоста.
+ */
+@Slf4j
+public class CompactLFUCache<T> implements Cache<T> {
+
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final LongIntHashMap index;
+    private long[] ids;
+    private Object[] values;
+    private long[] counters;
+    private long[] sequences;
+    private int[] bucketOf;
+    private int[] prev;
+    private int[] next;
+    private int used;
+    private int freeSlot = NIL;
+    private long insertions;
+
+    private int[] bucketHead;
+    private int[] bucketTail;
+    private int[] bucketPrev;
+    private int[] bucketNext;
+    private int usedBuckets;
+    private int freeBucket = NIL;
+    private int firstBucket = NIL;
+
+    private Integer sizeCache;
+
+    public CompactLFUCache() {
+        index = new LongIntHashMap();
+        ids = new long[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        counters = new long[INITIAL_CAPACITY];
+        sequences = new long[INITIAL_CAPACITY];
+        bucketOf = new int[INITIAL_CAPACITY];
+        prev = new int[INITIAL_CAPACITY];
+        next = new int[INITIAL_CAPACITY];
+        bucketHead = new int[INITIAL_CAPACITY];
+        bucketTail = new int[INITIAL_CAPACITY];
+        bucketPrev = new int[INITIAL_CAPACITY];
+        bucketNext = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Устанавливает размер кэша.
+     */
+    @Override
+    public void setSizeCache(Integer sizeCache) {
+        this.sizeCache = sizeCache;
+        while (index.size() > sizeCache) {
+            deleteFromCache();
+        }
+    }
+
+    /**
+     * Сохраняет переданный id объекта и сам объект в кэш.
+     * Если id, данного объекта нет в кэше, устанавливает
+     * счетчик обращения к этому объекту на 1, иначе
+     * к счетчику прибавляется 1.
+     */
+    @Override
+    public T save(Long id, T object) {
+        if (id == null) {
+            return object;
+        }
+        int slot = index.get(id);
+        if (slot != LongIntHashMap.NO_VALUE) {
+            values[slot] = object;
+            increment(slot);
+        } else {
+            checkCacheSize();
+            slot = newSlot();
+            ids[slot] = id;
+            values[slot] = object;
+            counters[slot] = 1L;
+            sequences[slot] = ++insertions;
+            index.put(id, slot);
+            int bucket = firstBucket;
+            if (bucket == NIL || counters[bucketHead[bucket]] != 1L) {
+                bucket = newBucket(NIL, firstBucket);
+            }
+            addLast(bucket, slot);
+        }
+        log.debug("Save object with id {} to cache", id);
+        return object;
+    }
+
+    /**
+     * Возращает объект из кэша по переданному id,
+     * если объекта нет с таким id - возвращает null.
+     * <p>
+     * Добавляет 1 к счетчику обращений к элементу.
+     *
+     * @param id объекта для отображения
+     * @return объект по id
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getById(Long id) {
+        int slot = index.get(id);
+        if (slot == LongIntHashMap.NO_VALUE) {
+            return null;
+        }
+        log.debug("Get object with id {} from cache", id);
+        increment(slot);
+        return (T) values[slot];
+    }
+
+    /**
+     * Удаляет объект из кэша по переданному id,
+     *
+     * @param id объекта для удаления
+     */
+    @Override
+    public void delete(Long id) {
+        int slot = index.remove(id);
+        if (slot != LongIntHashMap.NO_VALUE) {
+            release(slot);
+        }
+    }
+
+    /**
+     * Проверяет, есть ли объект с таким id в кэше,
+     * не считая это обращением к объекту.
+     */
+    @Override
+    public boolean contains(Long id) {
+        return index.get(id) != LongIntHashMap.NO_VALUE;
+    }
+
+    /**
+     * Возвращает количество элементов в кэше.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Возвращает счетчик обращений к элементу или 0,
+     * если элемента с таким id нет в кэше.
+     */
+    public long frequencyOf(Long id) {
+        int slot = index.get(id);
+        return slot == LongIntHashMap.NO_VALUE ? 0L : counters[slot];
+    }
+
+    /**
+     * Если кэш заполнен - вытесняет из него элемент.
+     */
+    private void checkCacheSize() {
+        if (index.size() >= sizeCache) {
+            deleteFromCache();
+        }
+    }
+
+    /**
+     * Удаляет хвост первой корзины - последний добавленный в кэш элемент
+     * из элементов с самым маленьким количеством обращений.
+     */
+    private void deleteFromCache() {
+        if (firstBucket != NIL) {
+            int slot = bucketTail[firstBucket];
+            index.remove(ids[slot]);
+            release(slot);
+        }
+    }
+
+    private void release(int slot) {
+        int bucket = bucketOf[slot];
+        remove(bucket, slot);
+        releaseIfEmpty(bucket);
+        values[slot] = null;
+        next[slot] = freeSlot;
+        freeSlot = slot;
+    }
+
+    /**
+     * Переносит элемент в корзину со счетчиком на 1 больше текущего,
+     * на место по номеру добавления.
+     */
+    private void increment(int slot) {
+        int current = bucketOf[slot];
+        long frequency = ++counters[slot];
+        int following = bucketNext[current];
+        if (following == NIL || counters[bucketHead[following]] != frequency) {
+            following = newBucket(current, following);
+        }
+        remove(current, slot);
+        insert(following, slot);
+        releaseIfEmpty(current);
+    }
+
+    /**
+     * Вставляет элемент после последнего элемента корзины с меньшим номером добавления.
+     */
+    private void insert(int bucket, int slot) {
+        int before = bucketTail[bucket];
+        while (before != NIL && sequences[before] > sequences[slot]) {
+            before = prev[before];
+        }
+        int after = before == NIL ? bucketHead[bucket] : next[before];
+        bucketOf[slot] = bucket;
+        prev[slot] = before;
+        next[slot] = after;
+        if (after != NIL) {
+            prev[after] = slot;
+        } else {
+            bucketTail[bucket] = slot;
+        }
+        if (before != NIL) {
+            next[before] = slot;
+        } else {
+            bucketHead[bucket] = slot;
+        }
+    }
+
+    private void addLast(int bucket, int slot) {
+        int last = bucketTail[bucket];
+        bucketOf[slot] = bucket;
+        prev[slot] = last;
+        next[slot] = NIL;
+        if (last != NIL) {
+            next[last] = slot;
+        } else {
+            bucketHead[bucket] = slot;
+        }
+        bucketTail[bucket] = slot;
+    }
+
+    private void remove(int bucket, int slot) {
+        if (prev[slot] != NIL) {
+            next[prev[slot]] = next[slot];
+        } else {
+            bucketHead[bucket] = next[slot];
+        }
+        if (next[slot] != NIL) {
+            prev[next[slot]] = prev[slot];
+        } else {
+            bucketTail[bucket] = prev[slot];
+        }
+    }
+
+    private int newSlot() {
+        if (freeSlot != NIL) {
+            int slot = freeSlot;
+            freeSlot = next[slot];
+            return slot;
+        }
+        if (used == ids.length) {
+            int capacity = ids.length << 1;
+            ids = Arrays.copyOf(ids, capacity);
+            values = Arrays.copyOf(values, capacity);
+            counters = Arrays.copyOf(counters, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+            bucketOf = Arrays.copyOf(bucketOf, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return used++;
+    }
+
+    private int newBucket(int before, int after) {
+        int bucket;
+        if (freeBucket != NIL) {
+            bucket = freeBucket;
+            freeBucket = bucketNext[bucket];
+        } else {
+            if (usedBuckets == bucketHead.length) {
+                int capacity = bucketHead.length << 1;
+                bucketHead = Arrays.copyOf(bucketHead, capacity);
+                bucketTail = Arrays.copyOf(bucketTail, capacity);
+                bucketPrev = Arrays.copyOf(bucketPrev, capacity);
+                bucketNext = Arrays.copyOf(bucketNext, capacity);
+            }
+            bucket = usedBuckets++;
+        }
+        bucketHead[bucket] = NIL;
+        bucketTail[bucket] = NIL;
+        bucketPrev[bucket] = before;
+        bucketNext[bucket] = after;
+        if (before != NIL) {
+            bucketNext[before] = bucket;
+        } else {
+            firstBucket = bucket;
+        }
+        if (after != NIL) {
+            bucketPrev[after] = bucket;
+        }
+        return bucket;
+    }
+
+    private void releaseIfEmpty(int bucket) {
+        if (bucketHead[bucket] != NIL) {
+            return;
+        }
+        int before = bucketPrev[bucket];
+        int after = bucketNext[bucket];
+        if (before != NIL) {
+            bucketNext[before] = after;
+        } else {
+            firstBucket = after;
+        }
+        if (after != NIL) {
+            bucketPrev[after] = before;
+        }
+        bucketNext[bucket] = freeBucket;
+        freeBucket = bucket;
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.example.cache.impl;
+
+import com.example.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+/**
+ * LRU кэш без объекта на каждый элемент: при заполнении вытесняется
+ * элемент, к которому дольше всего не обращались.
+ * <p>
+ * Индекс по id - {@link LongIntHashMap}, который возвращает номер ячейки
+ * элемента. В ячейках параллельных массивов хранятся id, объект и ссылки
+ * списка в виде номеров ячеек. Порядок списка заменяет время последнего
+ * обращения: голова - элемент, к которому обращались последним, хвост
+ * вытесняется. Освобожденные ячейки переиспользуются, массивы растут
+ * удвоением до размера кэша.
+ */
+@Slf4j
+public class CompactLRUCache<T> implements Cache<T> {
+
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final LongIntHashMap index;
+    private long[] ids;
+    private Object[] values;
+    private int[] prev;
+    private int[] next;
+    private int head = NIL;
+    private int tail = NIL;
+    private int used;
+    private int freeSlot = NIL;
+    private Integer sizeCache;
+
+    public CompactLRUCache() {
+        index = new LongIntHashMap();
+        ids = new long[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        prev = new int[INITIAL_CAPACITY];
+        next = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Устанавливает размер кэша.
+     */
+    @Override
+    public void setSizeCache(Integer sizeCache) {
+        this.sizeCache = sizeCache;
+        while (index.size() > sizeCache) {
+            deleteFromCache();
+        }
+    }
+
+    /**
+     * Сохраняет переданный id объекта и сам объект в кэш.
+     * Если объект с таким id уже есть в кэше - заменяет его
+     * и переносит в начало списка. Если кэш заполнен - перед
+     * добавлением нового объекта вытесняет самый давно
+     * использованный элемент.
+     */
+    @Override
+    public T save(Long id, T object) {
+        if (id == null) {
+            return object;
+        }
+        int slot = index.get(id);
+        if (slot != LongIntHashMap.NO_VALUE) {
+            values[slot] = object;
+            moveToHead(slot);
+        } else {
+            checkCacheSize();
+            slot = newSlot();
+            ids[slot] = id;
+            values[slot] = object;
+            index.put(id, slot);
+            linkFirst(slot);
+        }
+        log.debug("Save object with id {} to cache", id);
+        return object;
+    }
+
+    /**
+     * Возращает объект из кэша по переданному id,
+     * если объекта нет с таким id - возвращает null.
+     * <p>
+     * Переносит найденный элемент в начало списка.
+     *
+     * @param id объекта для отображения
+     * @return объект по id
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getById(Long id) {
+        int slot = index.get(id);
+        if (slot == LongIntHashMap.NO_VALUE) {
+            return null;
+        }
+        log.debug("Get object with id {} from cache", id);
+        moveToHead(slot);
+        return (T) values[slot];
+    }
+
+    /**
+     * Удаляет объект из кэша по переданному id,
+     *
+     * @param id объекта для удаления
+     */
+    @Override
+    public void delete(Long id) {
+        int slot = index.remove(id);
+        if (slot != LongIntHashMap.NO_VALUE) {
+            release(slot);
+        }
+    }
+
+    /**
+     * Проверяет, есть ли объект с таким id в кэше,
+     * не считая это обращением к объекту.
+     */
+    @Override
+    public boolean contains(Long id) {
+        return index.get(id) != LongIntHashMap.NO_VALUE;
+    }
+
+    /**
+     * Возвращает количество элементов в кэше.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Если кэш заполнен - вытесняет из него элемент.
+     */
+    private void checkCacheSize() {
+        if (index.size() >= sizeCache) {
+            deleteFromCache();
+        }
+    }
+
+    /**
+     * Удаляет элемент из хвоста списка - к нему дольше
+     * всех не было обращений.
+     */
+    private void deleteFromCache() {
+        if (tail != NIL) {
+            int slot = tail;
+            index.remove(ids[slot]);
+            release(slot);
+        }
+    }
+
+    private void release(int slot) {
+        unlink(slot);
+        values[slot] = null;
+        next[slot] = freeSlot;
+        freeSlot = slot;
+    }
+
+    private int newSlot() {
+        if (freeSlot != NIL) {
+            int slot = freeSlot;
+            freeSlot = next[slot];
+            return slot;
+        }
+        if (used == ids.length) {
+            grow();
+        }
+        return used++;
+    }
+
+    private void grow() {
+        int capacity = ids.length << 1;
+        ids = Arrays.copyOf(ids, capacity);
+        values = Arrays.copyOf(values, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+
+    private void moveToHead(int slot) {
+        if (slot != head) {
+            unlink(slot);
+            linkFirst(slot);
+        }
+    }
+
+    private void linkFirst(int slot) {
+        prev[slot] = NIL;
+        next[slot] = head;
+        if (head != NIL) {
+            prev[head] = slot;
+        } else {
+            tail = slot;
+        }
+        head = slot;
+    }
+
+    private void unlink(int slot) {
+        if (prev[slot] != NIL) {
+            next[prev[slot]] = next[slot];
+        } else {
+            head = next[slot];
+        }
+        if (next[slot] != NIL) {
+            prev[next[slot]] = prev[slot];
+        } else {
+            tail = prev[slot];
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.example.cache.impl;
+
+import com.example.cache.Cache;
+import com.example.cache.impl.TimerWheel.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Добавляет к любому кэшу время жизни элементов и перезагрузку заранее.
+ * <p>
+ * Время жизни задается для всего кэша и может быть переопределено
+ * для отдельного элемента через {@link #save(Long, Object, long)}.
+ * Истекшие элементы удаляются из кэша колесом таймеров
+ * {@link TimerWheel} при каждом обращении к кэшу, а при получении
+ * элемента время жизни дополнительно проверяется точно.
+ * <p>
+ * Когда прошла заданная доля времени жизни элемента,
+ * {@link #needsRefresh(Long)} один раз возвращает true - вызывающий
+ * может перезагрузить элемент в фоне, пока старое значение еще отдается.
+ * <p>
+ * Не потокобезопасен, как и оборачиваемый кэш.
+ */
+@Slf4j
+public class ExpiringCache<T> implements Cache<T> {
+
+    private static final long NO_REFRESH = Long.MAX_VALUE;
+
+    private final Cache<T> delegate;
+    private final long defaultTtlNanos;
+    private final double refreshAheadRatio;
+    private final LongSupplier ticker;
+    private final Map<Long, Timer> timers;
+    private final TimerWheel wheel;
+    private int sizeCache;
+
+    public ExpiringCache(Cache<T> delegate, Duration defaultTtl, double refreshAheadRatio) {
+        this(delegate, defaultTtl, refreshAheadRatio, System::nanoTime);
+    }
+
+    /**
+     * @param delegate          кэш, который хранит элементы и вытесняет их при заполнении
+     * @param defaultTtl        время жизни элементов, 0 - элементы не устаревают
+     * @param refreshAheadRatio доля времени жизни, после которой элемент пора
+     *                          перезагрузить, 0 или 1 и больше - не перезагружать
+     * @param ticker            источник времени в наносекундах
+     */
+    public ExpiringCache(Cache<T> delegate, Duration defaultTtl, double refreshAheadRatio, LongSupplier ticker) {
+        this.delegate = delegate;
+        this.defaultTtlNanos = defaultTtl.toNanos();
+        this.refreshAheadRatio = refreshAheadRatio;
+        this.ticker = ticker;
+        this.timers = new HashMap<>();
+        this.wheel = new TimerWheel(ticker.getAsLong());
+    }
+
+    @Override
+    public void setSizeCache(Integer sizeCache) {
+        this.sizeCache = sizeCache;
+        delegate.setSizeCache(sizeCache);
+    }
+
+    /**
+     * Сохраняет объект со временем жизни кэша по умолчанию.
+     */
+    @Override
+    public T save(Long id, T object) {
+        return save(id, object, 0L);
+    }
+
+    /**
+     * Сохраняет объект и заново отсчитывает его время жизни.
+     *
+     * @param ttlMillis время жизни в миллисекундах, 0 - время жизни кэша по умолчанию
+     */
+    @Override
+    public T save(Long id, T object, long ttlMillis) {
+        if (id == null) {
+            return object;
+        }
+        long now = advance();
+        delegate.save(id, object);
+        long ttlNanos = ttlMillis > 0L ? TimeUnit.MILLISECONDS.toNanos(ttlMillis) : defaultTtlNanos;
+        if (ttlNanos <= 0L) {
+            Timer timer = timers.remove(id);
+            if (timer != null) {
+                wheel.deschedule(timer);
+            }
+            return object;
+        }
+        Timer timer = timers.get(id);
+        if (timer == null) {
+            timer = new Timer(id);
+            timers.put(id, timer);
+            removeStaleTimers();
+        }
+        timer.expireAt = now + ttlNanos;
+        timer.refreshAt = refreshAheadRatio > 0.0 && refreshAheadRatio < 1.0
+                ? now + (long) (ttlNanos * refreshAheadRatio)
+                : NO_REFRESH;
+        timer.refreshing = false;
+        wheel.schedule(timer);
+        return object;
+    }
+
+    /**
+     * Возращает объект из кэша по переданному id,
+     * если объекта нет с таким id или он устарел - возвращает null.
+     */
+    @Override
+    public T getById(Long id) {
+        long now = advance();
+        Timer timer = timers.get(id);
+        if (timer != null && timer.expireAt - now <= 0L) {
+            expire(id);
+            return null;
+        }
+        return delegate.getById(id);
+    }
+
+    @Override
+    public void delete(Long id) {
+        delegate.delete(id);
+        Timer timer = timers.remove(id);
+        if (timer != null) {
+            wheel.deschedule(timer);
+        }
+    }
+
+    @Override
+    public boolean contains(Long id) {
+        long now = advance();
+        Timer timer = timers.get(id);
+        if (timer != null && timer.expireAt - now <= 0L) {
+            return false;
+        }
+        return delegate.contains(id);
+    }
+
+    /**
+     * Возвращает true, если прошла заданная доля времени жизни элемента
+     * и его перезагрузку еще никто не начал. Повторный вызов вернет false
+     * до следующего сохранения элемента.
+     */
+    @Override
+    public boolean needsRefresh(Long id) {
+        Timer timer = timers.get(id);
+        if (timer == null || timer.refreshing || timer.refreshAt == NO_REFRESH) {
+            return false;
+        }
+        long now = ticker.getAsLong();
+        if (now - timer.refreshAt < 0L || timer.expireAt - now <= 0L || !delegate.contains(id)) {
+            return false;
+        }
+        timer.refreshing = true;
+        return true;
+    }
+
+    private long advance() {
+        long now = ticker.getAsLong();
+        wheel.advance(now, this::expire);
+        return now;
+    }
+
+    private void expire(long id) {
+        log.debug("Object with id {} expired", id);
+        delete(id);
+    }
+
+    /**
+     * Оборачиваемый кэш вытесняет элементы, не сообщая об этом,
+     * поэтому таймеры вытесненных элементов удаляются, когда их
+     * становится вдвое больше размера кэша.
+     */
+    private void removeStaleTimers() {
+        if (timers.size() <= 2 * Math.max(sizeCache, 1)) {
+            return;
+        }
+        Iterator<Timer> iterator = timers.values().iterator();
+        while (iterator.hasNext()) {
+            Timer timer = iterator.next();
+            if (!delegate.contains(timer.id)) {
+                wheel.deschedule(timer);
+                iterator.remove();
+            }
+        }
+    }
+
+}
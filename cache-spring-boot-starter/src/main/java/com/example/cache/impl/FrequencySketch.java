@@ -0,0 +1,97 @@
+package com.example.cache.impl;
+
+/**
+ * Приблизительный счетчик частоты обращений (count-min sketch)
+ * для политики допуска TinyLFU.
+ * <p>
+ * Четыре строки 4-битных счетчиков (максимум 15), упакованных по 16 в long.
+ * Частота ключа - минимум из его счетчиков во всех строках. После
+ * {@code 10 * ширина} увеличений все счетчики делятся пополам, чтобы
+ * старая популярность со временем забывалась.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int DEPTH = SEEDS.length;
+    private static final int MAX_COUNTER = 15;
+
+    private long[] table;
+    private int rowMask;
+    private int rowLongs;
+    private int sampleSize;
+    private int additions;
+
+    FrequencySketch() {
+        ensureCapacity(16);
+    }
+
+    /**
+     * Пересоздает таблицу под указанное количество элементов кэша.
+     * Накопленная статистика при этом сбрасывается.
+     */
+    void ensureCapacity(int maximumSize) {
+        int width = Math.max(16, ceilingPowerOfTwo(Math.min(maximumSize, 1 << 26)));
+        rowLongs = width >>> 4;
+        rowMask = rowLongs - 1;
+        table = new long[rowLongs * DEPTH];
+        sampleSize = 10 * width;
+        additions = 0;
+    }
+
+    /**
+     * Возвращает оценку частоты обращений к ключу (от 0 до 15).
+     */
+    int frequency(long key) {
+        int frequency = MAX_COUNTER;
+        for (int row = 0; row < DEPTH; row++) {
+            long hash = hash(key, row);
+            int offset = ((int) hash & 15) << 2;
+            frequency = Math.min(frequency, (int) ((table[row * rowLongs + index(hash)] >>> offset) & 0xF));
+        }
+        return frequency;
+    }
+
+    /**
+     * Увеличивает счетчики ключа и при необходимости
+     * выполняет периодическое "старение".
+     */
+    void increment(long key) {
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            long hash = hash(key, row);
+            int slot = row * rowLongs + index(hash);
+            int offset = ((int) hash & 15) << 2;
+            long mask = 0xFL << offset;
+            if ((table[slot] & mask) != mask) {
+                table[slot] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private int index(long hash) {
+        return (int) (hash >>> 32) & rowMask;
+    }
+
+    private static long hash(long key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[row];
+        return hash ^ (hash >>> 29);
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+}
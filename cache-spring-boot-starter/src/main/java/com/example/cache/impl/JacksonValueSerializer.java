@@ -0,0 +1,69 @@
+package com.example.cache.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сериализует значения кэша в JSON через {@link ObjectMapper}.
+ * <p>
+ * Перед JSON пишется двухбайтовый номер класса значения, чтобы
+ * в одном кэше можно было хранить объекты разных классов. Номера
+ * выдаются классам при первой сериализации и живут, пока жив сериализатор.
+ */
+public class JacksonValueSerializer implements ValueSerializer<Object> {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, Integer> classIds;
+    private final Map<Integer, Class<?>> classes;
+    private final AtomicInteger nextClassId;
+
+    public JacksonValueSerializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.classIds = new ConcurrentHashMap<>();
+        this.classes = new ConcurrentHashMap<>();
+        this.nextClassId = new AtomicInteger();
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        int classId = classIds.computeIfAbsent(value.getClass(), this::register);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.write(classId >>> 8);
+        out.write(classId);
+        try {
+            objectMapper.writeValue(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize " + value.getClass().getName(), e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(ByteBuffer source) {
+        int classId = source.getShort() & 0xFFFF;
+        Class<?> type = classes.get(classId);
+        try {
+            return objectMapper.readValue(new ByteBufferBackedInputStream(source), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to deserialize " + type.getName(), e);
+        }
+    }
+
+    private Integer register(Class<?> type) {
+        int classId = nextClassId.getAndIncrement();
+        if (classId > 0xFFFF) {
+            throw new IllegalStateException("Too many value classes in off-heap cache");
+        }
+        classes.put(classId, type);
+        return classId;
+    }
+
+}
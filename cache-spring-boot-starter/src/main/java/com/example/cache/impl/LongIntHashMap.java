@@ -0,0 +1,182 @@
+package com.example.cache.impl;
+
+import java.util.Arrays;
+
+/**
+ * Хэш-таблица с ключами long и неотрицательными значениями int
+ * на двух примитивных массивах с открытой адресацией.
+ * <p>
+ * В отличие от {@code HashMap<Long, ...>} не упаковывает ключи в {@link Long}
+ * и не создает узел на каждую запись: запись занимает 12 байт в массивах
+ * (при заполнении до 3/4 - в среднем 16 байт). Коллизии разрешаются
+ * линейным пробированием, при удалении записи следующие за ней сдвигаются
+ * назад, поэтому таблица не засоряется удаленными записями.
+ * <p>
+ * Не потокобезопасна.
+ */
+public class LongIntHashMap {
+
+    /**
+     * Значение, которое возвращается для отсутствующего ключа
+     * и которым помечены пустые ячейки.
+     */
+    public static final int NO_VALUE = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize ожидаемое количество записей, таблица
+     *                     не будет расширяться до его достижения
+     */
+    public LongIntHashMap(int expectedSize) {
+        allocate(tableSize(expectedSize));
+    }
+
+    /**
+     * Возвращает значение по ключу или {@link #NO_VALUE}.
+     */
+    public int get(long key) {
+        int i = slot(key);
+        while (true) {
+            int value = values[i];
+            if (value == NO_VALUE || keys[i] == key) {
+                return value;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Сохраняет значение по ключу.
+     *
+     * @param value неотрицательное значение
+     * @return предыдущее значение или {@link #NO_VALUE}
+     */
+    public int put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        int i = slot(key);
+        while (values[i] != NO_VALUE) {
+            if (keys[i] == key) {
+                int previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > resizeAt) {
+            resize(keys.length << 1);
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * Удаляет запись по ключу.
+     *
+     * @return удаленное значение или {@link #NO_VALUE}
+     */
+    public int remove(long key) {
+        int i = slot(key);
+        while (true) {
+            int value = values[i];
+            if (value == NO_VALUE) {
+                return NO_VALUE;
+            }
+            if (keys[i] == key) {
+                shiftBack(i);
+                size--;
+                return value;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает количество ячеек таблицы.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    public void clear() {
+        Arrays.fill(values, NO_VALUE);
+        size = 0;
+    }
+
+    /**
+     * Сдвигает назад записи, следующие за освобожденной ячейкой,
+     * чтобы поиск по ним не обрывался на пустой ячейке.
+     */
+    private void shiftBack(int free) {
+        int i = free;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == NO_VALUE) {
+                break;
+            }
+            int home = slot(keys[i]);
+            boolean reachable = free <= i ? free < home && home <= i : free < home || home <= i;
+            if (!reachable) {
+                keys[free] = keys[i];
+                values[free] = values[i];
+                free = i;
+            }
+        }
+        values[free] = NO_VALUE;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != NO_VALUE) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != NO_VALUE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NO_VALUE);
+        mask = capacity - 1;
+        resizeAt = capacity / 4 * 3;
+    }
+
+    private static int tableSize(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 4 / 3 + 1);
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("Expected size is too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+}
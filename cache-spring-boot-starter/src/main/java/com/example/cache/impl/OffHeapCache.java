@@ -0,0 +1,283 @@
+package com.example.cache.impl;
+
+import com.example.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+/**
+ * LRU кэш, который хранит значения вне кучи.
+ * <p>
+ * Значения сериализуются ({@link ValueSerializer}) в память, выделенную
+ * {@link SlabAllocator} в прямых {@link java.nio.ByteBuffer}. В куче остаются
+ * только примитивные массивы: индекс id - номер записи ({@link LongIntHashMap})
+ * и параллельные массивы записей (id, адрес и длина значения, время
+ * обращения, ссылки списка). Сборщику мусора не нужно обходить графы
+ * объектов кэша, сколько бы записей в нем ни было. Цена - сериализация
+ * при сохранении и десериализация при каждом получении: возвращается
+ * новая копия объекта.
+ * <p>
+ * Записи с кусками одного размера связаны в свой LRU список. При вытеснении
+ * сравниваются хвосты списков и вытесняется запись с самым давним
+ * обращением. Если для нового значения не хватает памяти - вытесняются
+ * давние записи того же размера, чтобы освободился подходящий кусок.
+ * Если записей этого размера нет, блок памяти забирается у размера,
+ * которому отдано больше всего блоков: вытесняются все записи блока,
+ * в котором лежит самая давняя запись этого размера.
+ * <p>
+ * Не потокобезопасен.
+ */
+@Slf4j
+public class OffHeapCache<T> implements Cache<T> {
+
+    private static final int NIL = -1;
+    private static final int INITIAL_ENTRIES = 1024;
+
+    private final ValueSerializer<T> serializer;
+    private final SlabAllocator allocator;
+    private final LongIntHashMap index;
+    private final int[] classHead;
+    private final int[] classTail;
+
+    private long[] ids;
+    private long[] addresses;
+    private int[] lengths;
+    private long[] stamps;
+    private int[] prev;
+    private int[] next;
+
+    private int used;
+    private int freeEntry = NIL;
+    private int size;
+    private long clock;
+    private int sizeCache;
+
+    /**
+     * @param serializer    сериализатор значений
+     * @param capacityBytes наибольший объем памяти вне кучи для значений
+     * @param slabSize      размер блока памяти, наибольший размер одного значения
+     */
+    public OffHeapCache(ValueSerializer<T> serializer, long capacityBytes, int slabSize) {
+        this.serializer = serializer;
+        this.allocator = new SlabAllocator(capacityBytes, slabSize);
+        this.index = new LongIntHashMap();
+        int classes = SlabAllocator.sizeClass(slabSize) + 2;
+        this.classHead = new int[classes];
+        this.classTail = new int[classes];
+        Arrays.fill(classHead, NIL);
+        Arrays.fill(classTail, NIL);
+        allocateEntries(INITIAL_ENTRIES);
+    }
+
+    /**
+     * Устанавливает наибольшее количество записей.
+     */
+    @Override
+    public void setSizeCache(Integer sizeCache) {
+        this.sizeCache = sizeCache;
+        while (size > sizeCache) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Сериализует объект и сохраняет его вне кучи. Если объект
+     * больше блока памяти - он не сохраняется.
+     */
+    @Override
+    public T save(Long id, T object) {
+        if (id == null || object == null) {
+            return object;
+        }
+        byte[] bytes = serializer.serialize(object);
+        delete(id);
+        if (!allocator.fits(bytes.length)) {
+            log.debug("Object with id {} is too large for off-heap cache: {} bytes", id, bytes.length);
+            return object;
+        }
+        if (size >= sizeCache) {
+            evictOldest();
+        }
+        long address = allocate(bytes.length);
+        if (address == SlabAllocator.NO_ADDRESS) {
+            log.debug("No off-heap memory for object with id {}", id);
+            return object;
+        }
+        allocator.write(address, bytes, bytes.length);
+        int entry = newEntry();
+        ids[entry] = id;
+        addresses[entry] = address;
+        lengths[entry] = bytes.length;
+        stamps[entry] = ++clock;
+        linkFirst(entry);
+        index.put(id, entry);
+        size++;
+        log.debug("Save object with id {} to cache", id);
+        return object;
+    }
+
+    /**
+     * Возвращает копию объекта из кэша по переданному id,
+     * если объекта нет с таким id - возвращает null.
+     */
+    @Override
+    public T getById(Long id) {
+        int entry = index.get(id);
+        if (entry == LongIntHashMap.NO_VALUE) {
+            return null;
+        }
+        stamps[entry] = ++clock;
+        unlink(entry);
+        linkFirst(entry);
+        log.debug("Get object with id {} from cache", id);
+        return serializer.deserialize(allocator.read(addresses[entry], lengths[entry]));
+    }
+
+    @Override
+    public void delete(Long id) {
+        int entry = index.remove(id);
+        if (entry != LongIntHashMap.NO_VALUE) {
+            release(entry);
+        }
+    }
+
+    @Override
+    public boolean contains(Long id) {
+        return index.get(id) != LongIntHashMap.NO_VALUE;
+    }
+
+    /**
+     * Возвращает количество записей в кэше.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает объем памяти вне кучи, взятой у JVM.
+     */
+    public long offHeapBytes() {
+        return allocator.reservedBytes();
+    }
+
+    /**
+     * Выделяет кусок памяти, при нехватке вытесняя давние записи
+     * с кусками того же размера, а если их нет - забирая блок у другого размера.
+     */
+    private long allocate(int length) {
+        int sizeClass = SlabAllocator.sizeClass(length);
+        long address = allocator.allocate(length);
+        while (address == SlabAllocator.NO_ADDRESS && classTail[sizeClass] != NIL) {
+            evict(classTail[sizeClass]);
+            address = allocator.allocate(length);
+        }
+        if (address == SlabAllocator.NO_ADDRESS && reclaimSlab(sizeClass)) {
+            address = allocator.allocate(length);
+        }
+        return address;
+    }
+
+    /**
+     * Передает размеру sizeClass блок размера, которому отдано больше всего
+     * блоков, вытесняя записи этого блока.
+     *
+     * @return false, если блоков у других размеров нет
+     */
+    private boolean reclaimSlab(int sizeClass) {
+        int owner = allocator.largestOwner(sizeClass);
+        if (owner == -1) {
+            return false;
+        }
+        int slab = classTail[owner] != NIL
+                ? SlabAllocator.slabOf(addresses[classTail[owner]])
+                : allocator.firstSlab(owner);
+        int entry = classHead[owner];
+        while (entry != NIL) {
+            int following = next[entry];
+            if (SlabAllocator.slabOf(addresses[entry]) == slab) {
+                evict(entry);
+            }
+            entry = following;
+        }
+        allocator.reassign(slab, sizeClass);
+        log.debug("Move off-heap slab {} from size class {} to {}", slab, owner, sizeClass);
+        return true;
+    }
+
+    /**
+     * Вытесняет запись с самым давним обращением среди хвостов списков.
+     */
+    private void evictOldest() {
+        int oldest = NIL;
+        for (int tail : classTail) {
+            if (tail != NIL && (oldest == NIL || stamps[tail] < stamps[oldest])) {
+                oldest = tail;
+            }
+        }
+        if (oldest != NIL) {
+            evict(oldest);
+        }
+    }
+
+    private void evict(int entry) {
+        index.remove(ids[entry]);
+        release(entry);
+    }
+
+    private void release(int entry) {
+        unlink(entry);
+        allocator.free(addresses[entry], lengths[entry]);
+        next[entry] = freeEntry;
+        freeEntry = entry;
+        size--;
+    }
+
+    private int newEntry() {
+        if (freeEntry != NIL) {
+            int entry = freeEntry;
+            freeEntry = next[entry];
+            return entry;
+        }
+        if (used == ids.length) {
+            allocateEntries(ids.length << 1);
+        }
+        return used++;
+    }
+
+    private void linkFirst(int entry) {
+        int sizeClass = SlabAllocator.sizeClass(lengths[entry]);
+        int head = classHead[sizeClass];
+        prev[entry] = NIL;
+        next[entry] = head;
+        if (head != NIL) {
+            prev[head] = entry;
+        } else {
+            classTail[sizeClass] = entry;
+        }
+        classHead[sizeClass] = entry;
+    }
+
+    private void unlink(int entry) {
+        int sizeClass = SlabAllocator.sizeClass(lengths[entry]);
+        if (prev[entry] != NIL) {
+            next[prev[entry]] = next[entry];
+        } else {
+            classHead[sizeClass] = next[entry];
+        }
+        if (next[entry] != NIL) {
+            prev[next[entry]] = prev[entry];
+        } else {
+            classTail[sizeClass] = prev[entry];
+        }
+    }
+
+    private void allocateEntries(int capacity) {
+        ids = ids == null ? new long[capacity] : Arrays.copyOf(ids, capacity);
+        addresses = addresses == null ? new long[capacity] : Arrays.copyOf(addresses, capacity);
+        lengths = lengths == null ? new int[capacity] : Arrays.copyOf(lengths, capacity);
+        stamps = stamps == null ? new long[capacity] : Arrays.copyOf(stamps, capacity);
+        prev = prev == null ? new int[capacity] : Arrays.copyOf(prev, capacity);
+        next = next == null ? new int[capacity] : Arrays.copyOf(next, capacity);
+    }
+
+}
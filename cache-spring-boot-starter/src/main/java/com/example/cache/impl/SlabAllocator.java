@@ -0,0 +1,202 @@
+package com.example.cache.impl;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Выделяет память для значений кэша вне кучи.
+ * <p>
+ * Память берется у JVM крупными блоками (slab) через
+ * {@link ByteBuffer#allocateDirect(int)} и делится на куски одного
+ * размера. Размеры кусков - степени двойки от 64 байт до размера блока,
+ * каждый блок отдается одному размеру при первой необходимости. Значение
+ * занимает кусок наименьшего подходящего размера, освобожденные куски
+ * хранятся в стеке своего размера и выдаются повторно. Блоки не
+ * возвращаются JVM, пока жив распределитель.
+ * <p>
+ * Когда память исчерпана, блок можно передать другому размеру
+ * ({@link #reassign(int, int)}): иначе размер, которому не досталось
+ * блоков, не смог бы сохранить ни одного значения.
+ * <p>
+ * Адрес куска - номер блока в старших 32 битах и смещение в младших.
+ * Не потокобезопасен.
+ */
+final class SlabAllocator {
+
+    static final long NO_ADDRESS = -1L;
+
+    private static final int MIN_CHUNK_SHIFT = 6;
+
+    private final int slabSize;
+    private final int maxSlabs;
+    private ByteBuffer[] slabs;
+    private int[] slabClasses;
+    private int slabCount;
+    private final int[] slabsPerClass;
+    private final int[] currentSlab;
+    private final int[] currentOffset;
+    private final long[][] freeChunks;
+    private final int[] freeCount;
+
+    /**
+     * @param capacityBytes наибольший объем памяти вне кучи
+     * @param slabSize      размер блока, округляется вверх до степени двойки
+     */
+    SlabAllocator(long capacityBytes, int slabSize) {
+        this.slabSize = Math.max(1 << MIN_CHUNK_SHIFT, Integer.highestOneBit(Math.max(1, slabSize - 1)) << 1);
+        this.maxSlabs = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, capacityBytes / this.slabSize));
+        this.slabs = new ByteBuffer[Math.min(maxSlabs, 1024)];
+        this.slabClasses = new int[slabs.length];
+        int classes = sizeClass(this.slabSize) + 1;
+        this.slabsPerClass = new int[classes];
+        this.currentSlab = new int[classes];
+        this.currentOffset = new int[classes];
+        this.freeChunks = new long[classes][];
+        this.freeCount = new int[classes];
+        Arrays.fill(currentSlab, -1);
+        for (int i = 0; i < classes; i++) {
+            freeChunks[i] = new long[16];
+        }
+    }
+
+    /**
+     * Возвращает номер размера куска, в который помещается length байт.
+     */
+    static int sizeClass(int length) {
+        if (length <= 1 << MIN_CHUNK_SHIFT) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_CHUNK_SHIFT;
+    }
+
+    /**
+     * Возвращает true, если значение такого размера можно разместить.
+     */
+    boolean fits(int length) {
+        return length <= slabSize;
+    }
+
+    /**
+     * Выделяет кусок для length байт.
+     *
+     * @return адрес куска или {@link #NO_ADDRESS}, если свободных кусков
+     * этого размера нет и память для нового блока исчерпана
+     */
+    long allocate(int length) {
+        int sizeClass = sizeClass(length);
+        if (freeCount[sizeClass] > 0) {
+            return freeChunks[sizeClass][--freeCount[sizeClass]];
+        }
+        int chunk = 1 << (sizeClass + MIN_CHUNK_SHIFT);
+        if (currentSlab[sizeClass] < 0 || currentOffset[sizeClass] + chunk > slabSize) {
+            if (slabCount == maxSlabs) {
+                return NO_ADDRESS;
+            }
+            currentSlab[sizeClass] = newSlab(sizeClass);
+            currentOffset[sizeClass] = 0;
+        }
+        long address = ((long) currentSlab[sizeClass] << 32) | currentOffset[sizeClass];
+        currentOffset[sizeClass] += chunk;
+        return address;
+    }
+
+    /**
+     * Возвращает кусок, выделенный для length байт, для повторного использования.
+     */
+    void free(long address, int length) {
+        int sizeClass = sizeClass(length);
+        long[] stack = freeChunks[sizeClass];
+        if (freeCount[sizeClass] == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length << 1);
+            freeChunks[sizeClass] = stack;
+        }
+        stack[freeCount[sizeClass]++] = address;
+    }
+
+    /**
+     * Возвращает номер блока, в котором находится кусок.
+     */
+    static int slabOf(long address) {
+        return (int) (address >>> 32);
+    }
+
+    /**
+     * Возвращает размер, которому отдано больше всего блоков, кроме except,
+     * или -1, если блоков нет ни у одного другого размера.
+     */
+    int largestOwner(int except) {
+        int owner = -1;
+        for (int i = 0; i < slabsPerClass.length; i++) {
+            if (i != except && slabsPerClass[i] > 0 && (owner == -1 || slabsPerClass[i] > slabsPerClass[owner])) {
+                owner = i;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Возвращает первый блок, отданный размеру sizeClass, или -1.
+     */
+    int firstSlab(int sizeClass) {
+        for (int slab = 0; slab < slabCount; slab++) {
+            if (slabClasses[slab] == sizeClass) {
+                return slab;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Передает блок размеру sizeClass. Все куски блока должны быть
+     * освобождены: значения в нем будут перезаписаны.
+     */
+    void reassign(int slab, int sizeClass) {
+        int owner = slabClasses[slab];
+        long[] stack = freeChunks[owner];
+        int kept = 0;
+        for (int i = 0; i < freeCount[owner]; i++) {
+            if (slabOf(stack[i]) != slab) {
+                stack[kept++] = stack[i];
+            }
+        }
+        freeCount[owner] = kept;
+        if (currentSlab[owner] == slab) {
+            currentSlab[owner] = -1;
+        }
+        slabsPerClass[owner]--;
+        slabsPerClass[sizeClass]++;
+        slabClasses[slab] = sizeClass;
+        currentSlab[sizeClass] = slab;
+        currentOffset[sizeClass] = 0;
+    }
+
+    void write(long address, byte[] source, int length) {
+        slabs[slabOf(address)].put((int) address, source, 0, length);
+    }
+
+    /**
+     * Возвращает буфер, который смотрит на содержимое куска без копирования.
+     */
+    ByteBuffer read(long address, int length) {
+        return slabs[slabOf(address)].slice((int) address, length);
+    }
+
+    /**
+     * Возвращает объем памяти вне кучи, взятой у JVM.
+     */
+    long reservedBytes() {
+        return (long) slabCount * slabSize;
+    }
+
+    private int newSlab(int sizeClass) {
+        if (slabCount == slabs.length) {
+            slabs = Arrays.copyOf(slabs, Math.min(maxSlabs, slabs.length << 1));
+            slabClasses = Arrays.copyOf(slabClasses, slabs.length);
+        }
+        slabs[slabCount] = ByteBuffer.allocateDirect(slabSize);
+        slabClasses[slabCount] = sizeClass;
+        slabsPerClass[sizeClass]++;
+        return slabCount++;
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.example.cache.impl;
+
+import com.example.cache.Cache;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Потокобезопасный кэш, разделенный на сегменты.
+ * <p>
+ * Каждый сегмент - отдельный однопоточный кэш (LRU, LFU, ...) со своей
+ * блокировкой, сегмент выбирается по хэшу id. Потоки, работающие с
+ * разными сегментами, не блокируют друг друга, поэтому чтение и запись
+ * масштабируются по ядрам. Политика вытеснения соблюдается в пределах
+ * сегмента.
+ * <p>
+ * Размер кэша делится между сегментами так, что их суммарная емкость
+ * равна размеру кэша. Сегментов не больше размера кэша: их количество
+ * уменьшается до наибольшей степени двойки, не превышающей размер.
+ */
+public class StripedCache<T> implements Cache<T> {
+
+    private final Supplier<Cache<T>> engine;
+    private final int maxStripes;
+    private volatile Segment<T>[] segments;
+
+    /**
+     * Создает кэш с количеством сегментов, равным ближайшей
+     * степени двойки не меньше учетверенного количества ядер,
+     * но не больше размера кэша.
+     *
+     * @param engine фабрика однопоточного кэша для сегмента
+     */
+    public StripedCache(Supplier<Cache<T>> engine) {
+        this(Runtime.getRuntime().availableProcessors() * 4, engine);
+    }
+
+    /**
+     * @param stripes желаемое количество сегментов, округляется вверх до степени двойки
+     * @param engine  фабрика однопоточного кэша для сегмента
+     */
+    public StripedCache(int stripes, Supplier<Cache<T>> engine) {
+        this.engine = engine;
+        this.maxStripes = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.segments = newSegments(maxStripes);
+    }
+
+    /**
+     * Устанавливает размер кэша. Если сегментов больше размера, кэш
+     * пересоздается с меньшим количеством сегментов и его содержимое
+     * теряется. Остаток от деления размера достается первым сегментам,
+     * поэтому суммарная емкость сегментов равна размеру кэша.
+     */
+    @Override
+    public synchronized void setSizeCache(Integer sizeCache) {
+        int size = Math.max(1, sizeCache);
+        int stripes = Math.min(maxStripes, Integer.highestOneBit(size));
+        Segment<T>[] current = segments;
+        if (current.length != stripes) {
+            current = newSegments(stripes);
+        }
+        for (int i = 0; i < current.length; i++) {
+            Segment<T> segment = current[i];
+            segment.lock.lock();
+            try {
+                segment.cache.setSizeCache(size / stripes + (i < size % stripes ? 1 : 0));
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        segments = current;
+    }
+
+    @Override
+    public T save(Long id, T object) {
+        if (id == null) {
+            return object;
+        }
+        Segment<T> segment = segmentFor(id);
+        segment.lock.lock();
+        try {
+            return segment.cache.save(id, object);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public T getById(Long id) {
+        Segment<T> segment = segmentFor(id);
+        segment.lock.lock();
+        try {
+            return segment.cache.getById(id);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        Segment<T> segment = segmentFor(id);
+        segment.lock.lock();
+        try {
+            segment.cache.delete(id);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(Long id) {
+        Segment<T> segment = segmentFor(id);
+        segment.lock.lock();
+        try {
+            return segment.cache.contains(id);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public T save(Long id, T object, long ttlMillis) {
+        if (id == null) {
+            return object;
+        }
+        Segment<T> segment = segmentFor(id);
+        segment.lock.lock();
+        try {
+            return segment.cache.save(id, object, ttlMillis);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean needsRefresh(Long id) {
+        Segment<T> segment = segmentFor(id);
+        segment.lock.lock();
+        try {
+            return segment.cache.needsRefresh(id);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество сегментов.
+     */
+    public int stripes() {
+        return segments.length;
+    }
+
+    private Segment<T> segmentFor(Long id) {
+        Segment<T>[] current = segments;
+        long h = id * 0x9E3779B97F4A7C15L;
+        return current[(int) (h ^ (h >>> 32)) & (current.length - 1)];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Segment<T>[] newSegments(int stripes) {
+        Segment<T>[] created = new Segment[stripes];
+        for (int i = 0; i < stripes; i++) {
+            created[i] = new Segment<>(engine.get());
+        }
+        return created;
+    }
+
+    private static final class Segment<T> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Cache<T> cache;
+
+        private Segment(Cache<T> cache) {
+            this.cache = cache;
+        }
+
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.example.cache.impl;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Иерархическое колесо таймеров для истечения времени жизни элементов кэша.
+ * <p>
+ * Четыре уровня по 64 корзины: корзина первого уровня охватывает ~1 секунду,
+ * второго ~1 минуту, третьего ~1 час, четвертого ~3 дня. Таймер помещается
+ * на самый мелкий уровень, который вмещает оставшееся время. При продвижении
+ * времени обрабатываются только пройденные корзины: наступившие таймеры
+ * истекают, остальные опускаются на более мелкий уровень. Постановка,
+ * отмена и истечение таймера выполняются за O(1).
+ * <p>
+ * Время - значения {@link System#nanoTime()}. Не потокобезопасно.
+ */
+final class TimerWheel {
+
+    private static final int BUCKETS = 64;
+    private static final int[] SHIFT = {30, 36, 42, 48};
+
+    private final Timer[][] wheel;
+    private long nanos;
+
+    TimerWheel(long now) {
+        nanos = now;
+        wheel = new Timer[SHIFT.length][BUCKETS];
+        for (Timer[] level : wheel) {
+            for (int i = 0; i < BUCKETS; i++) {
+                level[i] = Timer.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Ставит таймер или переставляет уже поставленный
+     * на новое время {@link Timer#expireAt}.
+     */
+    void schedule(Timer timer) {
+        if (timer.next != null) {
+            unlink(timer);
+        }
+        link(findBucket(timer.expireAt), timer);
+    }
+
+    /**
+     * Снимает таймер, если он был поставлен.
+     */
+    void deschedule(Timer timer) {
+        if (timer.next != null) {
+            unlink(timer);
+        }
+    }
+
+    /**
+     * Продвигает колесо до текущего времени и передает id
+     * всех истекших таймеров в onExpire.
+     */
+    void advance(long now, LongConsumer onExpire) {
+        long previous = nanos;
+        nanos = now;
+        for (int level = 0; level < SHIFT.length; level++) {
+            long previousTicks = previous >>> SHIFT[level];
+            long currentTicks = now >>> SHIFT[level];
+            long delta = currentTicks - previousTicks;
+            if (delta <= 0L) {
+                break;
+            }
+            expire(level, previousTicks, delta, onExpire);
+        }
+    }
+
+    private void expire(int level, long previousTicks, long delta, LongConsumer onExpire) {
+        Timer[] buckets = wheel[level];
+        int start = (int) (previousTicks & (BUCKETS - 1));
+        int steps = (int) Math.min(delta + 1, BUCKETS);
+        for (int i = 0; i < steps; i++) {
+            Timer sentinel = buckets[(start + i) & (BUCKETS - 1)];
+            Timer timer = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            while (timer != sentinel) {
+                Timer next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                if (timer.expireAt - nanos <= 0L) {
+                    onExpire.accept(timer.id);
+                } else {
+                    schedule(timer);
+                }
+                timer = next;
+            }
+        }
+    }
+
+    private Timer findBucket(long time) {
+        long duration = time - nanos;
+        int last = SHIFT.length - 1;
+        for (int level = 0; level < last; level++) {
+            if (duration < 1L << SHIFT[level + 1]) {
+                return wheel[level][(int) ((time >>> SHIFT[level]) & (BUCKETS - 1))];
+            }
+        }
+        return wheel[last][(int) ((time >>> SHIFT[last]) & (BUCKETS - 1))];
+    }
+
+    private static void link(Timer sentinel, Timer timer) {
+        timer.prev = sentinel.prev;
+        timer.next = sentinel;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+    }
+
+    private static void unlink(Timer timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+
+    /**
+     * Таймер элемента кэша: время истечения и время,
+     * после которого элемент пора перезагрузить.
+     */
+    static final class Timer {
+
+        final long id;
+        long expireAt;
+        long refreshAt;
+        boolean refreshing;
+        private Timer prev;
+        private Timer next;
+
+        Timer(long id) {
+            this.id = id;
+        }
+
+        private static Timer sentinel() {
+            Timer sentinel = new Timer(0L);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.example.cache.impl;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Превращает значения кэша в байты и обратно
+ * для хранения вне кучи ({@link OffHeapCache}).
+ */
+public interface ValueSerializer<T> {
+
+    byte[] serialize(T value);
+
+    /**
+     * @param source буфер, который содержит ровно одно сериализованное значение
+     */
+    T deserialize(ByteBuffer source);
+
+}
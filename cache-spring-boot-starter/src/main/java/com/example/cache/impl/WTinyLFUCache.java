@@ -0,0 +1,265 @@
+package com.example.cache.impl;
+
+import com.example.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Кэш с политикой W-TinyLFU.
+ * <p>
+ * Новые элементы попадают в небольшое окно LRU (1% размера кэша), которое
+ * сглаживает всплески обращений. Вытесненный из окна элемент становится
+ * кандидатом в основную область - сегментированный LRU из испытательного
+ * (20%) и защищенного (80%) сегментов. Кандидат допускается в основную
+ * область, только если по оценке {@link FrequencySketch} к нему обращались
+ * чаще, чем к элементу, который придется вытеснить. Так популярные новости
+ * не вымываются длинным "хвостом" однократных обращений при постраничном
+ * просмотре.
+ * <p>
+ * Все операции выполняются за O(1).
+ */
+@Slf4j
+public class WTinyLFUCache<T> implements Cache<T> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final Map<Long, Node<T>> index;
+    private final FrequencySketch sketch;
+    private final Queue<T> window;
+    private final Queue<T> probation;
+    private final Queue<T> protectedQueue;
+    private int maxWindow;
+    private int maxMain;
+    private int maxProtected;
+
+    public WTinyLFUCache() {
+        index = new HashMap<>();
+        sketch = new FrequencySketch();
+        window = new Queue<>();
+        probation = new Queue<>();
+        protectedQueue = new Queue<>();
+    }
+
+    /**
+     * Устанавливает размер кэша и делит его между окном
+     * и сегментами основной области.
+     */
+    @Override
+    public void setSizeCache(Integer sizeCache) {
+        maxWindow = Math.max(1, sizeCache / 100);
+        maxMain = Math.max(0, sizeCache - maxWindow);
+        maxProtected = maxMain * 8 / 10;
+        sketch.ensureCapacity(sizeCache);
+        while (window.size > maxWindow) {
+            evict(window.tail);
+        }
+        while (protectedQueue.size > maxProtected) {
+            demote(protectedQueue.tail);
+        }
+        while (probation.size + protectedQueue.size > maxMain) {
+            evict(probation.tail != null ? probation.tail : protectedQueue.tail);
+        }
+    }
+
+    /**
+     * Сохраняет переданный id объекта и сам объект в кэш.
+     * Новый объект помещается в окно, при переполнении окна
+     * решается, какой элемент будет вытеснен из кэша.
+     */
+    @Override
+    public T save(Long id, T object) {
+        if (id == null) {
+            return object;
+        }
+        sketch.increment(id);
+        Node<T> node = index.get(id);
+        if (node != null) {
+            node.value = object;
+            onHit(node);
+        } else {
+            node = new Node<>(id, object);
+            index.put(id, node);
+            window.addFirst(node, WINDOW);
+            if (window.size > maxWindow) {
+                admit(window.tail);
+            }
+        }
+        log.debug("Save object with id {} to cache", id);
+        return object;
+    }
+
+    /**
+     * Возращает объект из кэша по переданному id,
+     * если объекта нет с таким id - возвращает null.
+     * <p>
+     * Обращение учитывается в оценке частоты в любом случае,
+     * даже если объекта в кэше нет.
+     *
+     * @param id объекта для отображения
+     * @return объект по id
+     */
+    @Override
+    public T getById(Long id) {
+        sketch.increment(id);
+        Node<T> node = index.get(id);
+        if (node == null) {
+            return null;
+        }
+        log.debug("Get object with id {} from cache", id);
+        onHit(node);
+        return node.value;
+    }
+
+    /**
+     * Удаляет объект из кэша по переданному id,
+     *
+     * @param id объекта для удаления
+     */
+    @Override
+    public void delete(Long id) {
+        Node<T> node = index.remove(id);
+        if (node != null) {
+            queueOf(node).remove(node);
+        }
+    }
+
+    /**
+     * Проверяет, есть ли объект с таким id в кэше,
+     * не считая это обращением к объекту.
+     */
+    @Override
+    public boolean contains(Long id) {
+        return index.containsKey(id);
+    }
+
+    /**
+     * Возвращает количество элементов в кэше.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Переносит элемент, к которому обратились, в начало его сегмента.
+     * Элемент из испытательного сегмента повышается до защищенного.
+     */
+    private void onHit(Node<T> node) {
+        switch (node.queue) {
+            case WINDOW -> window.moveToFront(node);
+            case PROTECTED -> protectedQueue.moveToFront(node);
+            default -> {
+                probation.remove(node);
+                protectedQueue.addFirst(node, PROTECTED);
+                if (protectedQueue.size > maxProtected) {
+                    demote(protectedQueue.tail);
+                }
+            }
+        }
+    }
+
+    /**
+     * Переводит вытесненный из окна элемент в испытательный сегмент.
+     * Если основная область переполнена - сравнивает частоту кандидата
+     * и жертвы (хвост испытательного сегмента) и вытесняет элемент
+     * с меньшей частотой. При равенстве вытесняется кандидат.
+     */
+    private void admit(Node<T> candidate) {
+        window.remove(candidate);
+        probation.addFirst(candidate, PROBATION);
+        if (probation.size + protectedQueue.size <= maxMain) {
+            return;
+        }
+        Node<T> victim = probation.tail != candidate ? probation.tail : protectedQueue.tail;
+        if (victim == null || victim == candidate) {
+            evict(candidate);
+        } else if (sketch.frequency(candidate.id) > sketch.frequency(victim.id)) {
+            evict(victim);
+        } else {
+            evict(candidate);
+        }
+    }
+
+    private void demote(Node<T> node) {
+        protectedQueue.remove(node);
+        probation.addFirst(node, PROBATION);
+    }
+
+    private void evict(Node<T> node) {
+        delete(node.id);
+    }
+
+    private Queue<T> queueOf(Node<T> node) {
+        return switch (node.queue) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            default -> protectedQueue;
+        };
+    }
+
+    private static final class Node<T> {
+
+        private final Long id;
+        private T value;
+        private int queue;
+        private Node<T> prev;
+        private Node<T> next;
+
+        private Node(Long id, T value) {
+            this.id = id;
+            this.value = value;
+        }
+
+    }
+
+    /**
+     * Двусвязный LRU список: голова - последний использованный элемент.
+     */
+    private static final class Queue<T> {
+
+        private Node<T> head;
+        private Node<T> tail;
+        private int size;
+
+        private void addFirst(Node<T> node, int queue) {
+            node.queue = queue;
+            node.prev = null;
+            node.next = head;
+            if (head != null) {
+                head.prev = node;
+            } else {
+                tail = node;
+            }
+            head = node;
+            size++;
+        }
+
+        private void remove(Node<T> node) {
+            if (node.prev != null) {
+                node.prev.next = node.next;
+            } else {
+                head = node.next;
+            }
+            if (node.next != null) {
+                node.next.prev = node.prev;
+            } else {
+                tail = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        private void moveToFront(Node<T> node) {
+            if (node != head) {
+                remove(node);
+                addFirst(node, node.queue);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.example.cache.metrics;
+
+import com.example.cache.CacheRegistry;
+import com.example.cache.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Публикует счетчики кэшей стартера в Micrometer с тегом cache = имя кэша:
+ * <ul>
+ *     <li>{@code cache.starter.gets} - обращения, тег result = hit/miss;</li>
+ *     <li>{@code cache.starter.loads} - вызовы метода при промахе, тег result = success/failure;</li>
+ *     <li>{@code cache.starter.coalesced.waits} - промахи, которые дождались чужой загрузки,
+ *     и время ожидания;</li>
+ *     <li>{@code cache.starter.refreshes.dropped} - перезагрузки в фоне, пропущенные
+ *     из-за заполненной очереди.</li>
+ * </ul>
+ * Кэши создаются при первом вызове метода, поэтому метрики
+ * регистрируются и для кэшей, созданных после привязки.
+ */
+@RequiredArgsConstructor
+public class CacheMeterBinder implements MeterBinder {
+
+    private final CacheRegistry cacheRegistry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cacheRegistry.forEachCache(name -> bind(registry, name, cacheRegistry.getStats(name)));
+    }
+
+    private static void bind(MeterRegistry registry, String name, CacheStats stats) {
+        FunctionCounter.builder("cache.starter.gets", stats, CacheStats::getHits)
+                .tags("cache", name, "result", "hit")
+                .description("Cache hits")
+                .register(registry);
+        FunctionCounter.builder("cache.starter.gets", stats, CacheStats::getMisses)
+                .tags("cache", name, "result", "miss")
+                .description("Cache misses")
+                .register(registry);
+        FunctionCounter.builder("cache.starter.loads", stats, CacheStats::getLoads)
+                .tags("cache", name, "result", "success")
+                .description("Values loaded by calling the cached method")
+                .register(registry);
+        FunctionCounter.builder("cache.starter.loads", stats, CacheStats::getLoadFailures)
+                .tags("cache", name, "result", "failure")
+                .description("Cached method calls that failed")
+                .register(registry);
+        FunctionTimer.builder("cache.starter.coalesced.waits", stats,
+                        CacheStats::getCoalescedWaits, CacheStats::getCoalescedWaitNanos, TimeUnit.NANOSECONDS)
+                .tags("cache", name)
+                .description("Misses that waited for a load started by another request")
+                .register(registry);
+        FunctionCounter.builder("cache.starter.refreshes.dropped", stats, CacheStats::getDroppedRefreshes)
+                .tags("cache", name)
+                .description("Background refreshes dropped because the refresh queue was full")
+                .register(registry);
+    }
+
+}
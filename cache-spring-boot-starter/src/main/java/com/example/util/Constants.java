@@ -6,5 +6,9 @@ public class Constants {
     public static final String CACHE_TYPE = "cache_type";
     public static final String CACHE_TYPE_LRU = "LRU";
     public static final String CACHE_TYPE_LFU = "LFU";
+    public static final String CACHE_TYPE_TINYLFU = "TINYLFU";
+    public static final String CACHE_TYPE_CONCURRENT_LRU = "CONCURRENT_LRU";
+    public static final String CACHE_TYPE_CONCURRENT_LFU = "CONCURRENT_LFU";
+    public static final String CACHE_TYPE_OFF_HEAP = "OFF_HEAP";
 
 }
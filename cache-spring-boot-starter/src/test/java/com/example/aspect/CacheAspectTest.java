@@ -0,0 +1,270 @@
+package com.example.aspect;
+
+import com.example.aspect.annotation.DeleteObjectFromCache;
+import com.example.aspect.annotation.GetObjectFromCache;
+import com.example.aspect.annotation.UpdateObjectInCache;
+import com.example.cache.Cache;
+import com.example.cache.CacheRegistry;
+import com.example.cache.CacheStats;
+import com.example.cache.impl.CompactLRUCache;
+import com.example.cache.impl.ExpiringCache;
+import com.example.dto.CommentDto;
+import com.example.dto.NewsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheAspectTest {
+
+    private static final Duration TTL = Duration.ofSeconds(10);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private CacheRegistry cacheRegistry;
+    private Repository target;
+    private Repository repository;
+
+    @BeforeEach
+    void setUp() {
+        cacheRegistry = new CacheRegistry(name -> {
+            Cache<Object> cache = name.startsWith("stale")
+                    ? new ExpiringCache<>(new CompactLRUCache<>(), TTL, 0.5, nanos::get)
+                    : new CompactLRUCache<>();
+            cache.setSizeCache(name.equals("comments") ? 2 : 10);
+            return cache;
+        });
+        target = new Repository();
+        repository = proxy(Runnable::run);
+    }
+
+    @Test
+    void shouldCacheCommentByCommentIdParameter() {
+        // given
+        CommentDto first = repository.findComment(1L, 2L);
+
+        // when
+        CommentDto second = repository.findComment(1L, 2L);
+
+        // then
+        assertSame(first, second);
+        assertEquals(1, target.calls.get());
+        assertTrue(cacheRegistry.getCache("comments").contains(2L));
+    }
+
+    @Test
+    void shouldKeepSeparateCachePerName() {
+        // given
+        NewsDto news = repository.findNews(2L);
+        repository.findComment(1L, 2L);
+
+        // when
+        NewsDto cached = repository.findNews(2L);
+
+        // then
+        assertSame(news, cached);
+        assertEquals(2, target.calls.get());
+    }
+
+    @Test
+    void shouldBoundEachCacheBySize() {
+        // given
+        repository.findComment(1L, 1L);
+        repository.findComment(1L, 2L);
+        repository.findComment(1L, 3L);
+
+        // when
+        repository.findComment(1L, 1L);
+
+        // then
+        assertEquals(4, target.calls.get());
+    }
+
+    @Test
+    void shouldUpdateAndDeleteByKeyExpression() {
+        // given
+        NewsDto news = repository.findNews(5L);
+
+        // when
+        NewsDto updated = repository.updateNews(5L, new NewsDto());
+
+        // then
+        assertNotSame(news, updated);
+        assertSame(updated, repository.findNews(5L));
+
+        // when
+        repository.deleteNews(5L);
+
+        // then
+        assertNotSame(updated, repository.findNews(5L));
+    }
+
+    @Test
+    void shouldLoadOnceForParallelMisses() throws Exception {
+        // given
+        int threads = 16;
+        CacheStats stats = cacheRegistry.getStats("slow");
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<NewsDto>> results = new ArrayList<>();
+
+        // when
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> repository.findSlow(1L)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (stats.getCoalescedWaits() < threads - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            target.release.countDown();
+
+            // then
+            NewsDto first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<NewsDto> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, target.calls.get());
+        assertEquals(1, stats.getLoads());
+        assertEquals(threads - 1, stats.getCoalescedWaits());
+    }
+
+    @Test
+    void shouldRethrowLoadFailureAndCountIt() {
+        // given
+        target.release.countDown();
+
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> repository.findSlow(-1L));
+        assertEquals(1, cacheRegistry.getStats("slow").getLoadFailures());
+    }
+
+    @Test
+    void shouldRefreshObjectInBackgroundWhenItIsAboutToExpire() {
+        // given
+        NewsDto news = repository.findStale(1L);
+        nanos.addAndGet(TTL.toNanos() * 3 / 4);
+
+        // when
+        NewsDto cached = repository.findStale(1L);
+
+        // then
+        assertSame(news, cached);
+        assertEquals(2, target.calls.get());
+        assertNotSame(news, repository.findStale(1L));
+    }
+
+    @Test
+    void shouldNotRefreshWhenRefreshAheadIsOff() {
+        // given
+        NewsDto news = repository.findStaleWithoutRefresh(1L);
+        nanos.addAndGet(TTL.toNanos() * 3 / 4);
+
+        // when
+        NewsDto cached = repository.findStaleWithoutRefresh(1L);
+
+        // then
+        assertSame(news, cached);
+        assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    void shouldCountRefreshDroppedByFullQueue() {
+        // given
+        repository = proxy(task -> {
+            throw new RejectedExecutionException("refresh queue is full");
+        });
+        NewsDto news = repository.findStale(1L);
+        nanos.addAndGet(TTL.toNanos() * 3 / 4);
+
+        // when
+        NewsDto cached = repository.findStale(1L);
+
+        // then
+        assertSame(news, cached);
+        assertEquals(1, target.calls.get());
+        assertEquals(1, cacheRegistry.getStats("stale").getDroppedRefreshes());
+    }
+
+    private Repository proxy(Executor refreshExecutor) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new CacheAspect(cacheRegistry, refreshExecutor));
+        return factory.getProxy();
+    }
+
+    public static class Repository {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @GetObjectFromCache(cacheName = "slow")
+        public NewsDto findSlow(Long id) throws InterruptedException {
+            calls.incrementAndGet();
+            release.await(10, TimeUnit.SECONDS);
+            if (id < 0) {
+                throw new IllegalArgumentException("News with id " + id + " not found");
+            }
+            NewsDto news = new NewsDto();
+            news.setId(id);
+            return news;
+        }
+
+        @GetObjectFromCache(cacheName = "news")
+        public NewsDto findNews(Long id) {
+            calls.incrementAndGet();
+            NewsDto news = new NewsDto();
+            news.setId(id);
+            return news;
+        }
+
+        @GetObjectFromCache(cacheName = "stale")
+        public NewsDto findStale(Long id) {
+            return findNews(id);
+        }
+
+        @GetObjectFromCache(cacheName = "staleWithoutRefresh", refreshAhead = false)
+        public NewsDto findStaleWithoutRefresh(Long id) {
+            return findNews(id);
+        }
+
+        @GetObjectFromCache(cacheName = "comments", key = "#p1")
+        public CommentDto findComment(Long newsId, Long commentId) {
+            calls.incrementAndGet();
+            CommentDto comment = new CommentDto();
+            comment.setId(commentId);
+            return comment;
+        }
+
+        @UpdateObjectInCache(cacheName = "news", key = "#p0")
+        public NewsDto updateNews(Long id, NewsDto news) {
+            news.setId(id);
+            return news;
+        }
+
+        @DeleteObjectFromCache(cacheName = "news")
+        public void deleteNews(Long id) {
+        }
+
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.example.aspect;
+
+import com.example.dto.CommentDto;
+import com.example.dto.JournalistDto;
+import com.example.dto.NewsDto;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CacheKeyExpressionTest {
+
+    @Test
+    void shouldUseFirstParameterByDefault() throws Throwable {
+        // given
+        CacheKeyExpression expression = compile("findNews", "", false);
+
+        // when
+        Long id = expression.evaluate(new Object[]{3L}, null);
+
+        // then
+        assertEquals(3L, id);
+    }
+
+    @Test
+    void shouldUseParameterByName() throws Throwable {
+        // given
+        Method method = method("findComment");
+        String name = method.getParameters()[1].isNamePresent() ? "#commentId" : "#p1";
+        CacheKeyExpression expression = CacheKeyExpression.compile(method, name, CommentDto.class, false);
+
+        // when
+        Long id = expression.evaluate(new Object[]{1L, 2L}, null);
+
+        // then
+        assertEquals(2L, id);
+    }
+
+    @Test
+    void shouldUseParameterByIndex() throws Throwable {
+        // given
+        CacheKeyExpression expression = compile("findComment", "#a1", false);
+
+        // when
+        Long id = expression.evaluate(new Object[]{1L, 2L}, null);
+
+        // then
+        assertEquals(2L, id);
+    }
+
+    @Test
+    void shouldUsePropertyChain() throws Throwable {
+        // given
+        CacheKeyExpression expression = compile("updateNews", "#result.journalist.id", true);
+        NewsDto news = new NewsDto();
+        news.setJournalist(new JournalistDto());
+        news.getJournalist().setId(9L);
+
+        // when
+        Long id = expression.evaluate(new Object[]{1L, news}, news);
+
+        // then
+        assertEquals(9L, id);
+    }
+
+    @Test
+    void shouldReturnNullWhenPropertyIsNull() throws Throwable {
+        // given
+        CacheKeyExpression expression = compile("updateNews", "#p1.journalist.id", true);
+
+        // when
+        Long id = expression.evaluate(new Object[]{1L, new NewsDto()}, null);
+
+        // then
+        assertNull(id);
+    }
+
+    @Test
+    void shouldUseResultIdByDefaultForUpdates() throws Throwable {
+        // given
+        CacheKeyExpression expression = compile("updateNews", "", true);
+        NewsDto news = new NewsDto();
+        news.setId(4L);
+
+        // when
+        Long id = expression.evaluate(new Object[]{1L, new NewsDto()}, news);
+
+        // then
+        assertEquals(4L, id);
+    }
+
+    @Test
+    void shouldRejectResultWhenResultIsNotAvailable() {
+        // when, then
+        assertThrows(IllegalStateException.class, () -> compile("findNews", "#result.id", false));
+    }
+
+    @Test
+    void shouldRejectUnknownParameter() {
+        // when, then
+        assertThrows(IllegalStateException.class, () -> compile("findNews", "#unknown", false));
+    }
+
+    @Test
+    void shouldRejectKeyOfWrongType() {
+        // when, then
+        assertThrows(IllegalStateException.class, () -> compile("updateNews", "#p1.title", true));
+    }
+
+    private static CacheKeyExpression compile(String name, String expression, boolean resultAllowed)
+            throws NoSuchMethodException {
+        Method method = method(name);
+        return CacheKeyExpression.compile(method, expression, method.getReturnType(), resultAllowed);
+    }
+
+    private static Method method(String name) throws NoSuchMethodException {
+        for (Method method : Methods.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    @SuppressWarnings("unused")
+    private interface Methods {
+
+        NewsDto findNews(Long id);
+
+        CommentDto findComment(Long newsId, Long commentId);
+
+        NewsDto updateNews(Long id, NewsDto news);
+
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.example.aspect;
+
+import com.example.aspect.annotation.CacheKey;
+import com.example.dto.NewsDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CacheKeyExtractorTest {
+
+    @Test
+    void shouldExtractIdFromGetId() throws Throwable {
+        // given
+        NewsDto news = new NewsDto();
+        news.setId(7L);
+
+        // when
+        Long id = CacheKeyExtractor.forType(NewsDto.class).extract(news);
+
+        // then
+        assertEquals(7L, id);
+    }
+
+    @Test
+    void shouldPreferCacheKeyField() throws Throwable {
+        // when
+        Long id = CacheKeyExtractor.forType(Keyed.class).extract(new Keyed(3L, 5L));
+
+        // then
+        assertEquals(5L, id);
+    }
+
+    @Test
+    void shouldExtractPrimitiveCacheKeyFromMethod() throws Throwable {
+        // when
+        Long id = CacheKeyExtractor.forType(Primitive.class).extract(new Primitive());
+
+        // then
+        assertEquals(42L, id);
+    }
+
+    @Test
+    void shouldReturnNullForTypeWithoutId() throws Throwable {
+        // when
+        Long id = CacheKeyExtractor.forType(String.class).extract("text");
+
+        // then
+        assertNull(id);
+    }
+
+    @Test
+    void shouldReturnNullForNullResult() throws Throwable {
+        // when
+        Long id = CacheKeyExtractor.forType(NewsDto.class).extract(null);
+
+        // then
+        assertNull(id);
+    }
+
+    @Test
+    void shouldRejectCacheKeyOfWrongType() {
+        // when, then
+        assertThrows(IllegalStateException.class, () -> CacheKeyExtractor.forType(WrongKey.class));
+    }
+
+    private static class Keyed {
+
+        private final Long id;
+
+        @CacheKey
+        private final Long newsId;
+
+        private Keyed(Long id, Long newsId) {
+            this.id = id;
+            this.newsId = newsId;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+    }
+
+    private static class Primitive {
+
+        @CacheKey
+        long key() {
+            return 42L;
+        }
+
+    }
+
+    private static class WrongKey {
+
+        @CacheKey
+        private String key;
+
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.example.cache.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CompactLFUCacheTest {
+
+    private static final int CACHE_SIZE = 1_000;
+    private static final int OPERATIONS = 200_000;
+    private static final int WARM_UP_ROUNDS = 5;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private CompactLFUCache<Object> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CompactLFUCache<>();
+        cache.setSizeCache(CACHE_SIZE);
+    }
+
+    @Test
+    void shouldEvictLeastFrequentlyUsed() {
+        // given
+        cache.setSizeCache(3);
+        cache.save(1L, "first");
+        cache.save(2L, "second");
+        cache.save(3L, "third");
+        cache.getById(1L);
+        cache.getById(3L);
+
+        // when
+        cache.save(4L, "fourth");
+
+        // then
+        assertNull(cache.getById(2L));
+        assertEquals("first", cache.getById(1L));
+        assertEquals("third", cache.getById(3L));
+        assertEquals("fourth", cache.getById(4L));
+    }
+
+    @Test
+    void shouldEvictLastAddedAmongLeastFrequentlyUsed() {
+        // given
+        cache.setSizeCache(3);
+        cache.save(1L, "first");
+        cache.save(2L, "second");
+        cache.save(3L, "third");
+        cache.getById(1L);
+
+        // when
+        cache.save(4L, "fourth");
+
+        // then
+        assertNull(cache.getById(3L));
+        assertEquals("first", cache.getById(1L));
+        assertEquals("second", cache.getById(2L));
+        assertEquals("fourth", cache.getById(4L));
+        assertEquals(3L, cache.frequencyOf(1L));
+    }
+
+    @Test
+    void shouldEvictLastAddedAmongLeastFrequentlyUsedAfterAccess() {
+        // given
+        cache.setSizeCache(2);
+        cache.save(1L, "first");
+        cache.save(2L, "second");
+        cache.getById(2L);
+        cache.getById(1L);
+
+        // when
+        cache.save(3L, "third");
+
+        // then
+        assertNull(cache.getById(2L));
+        assertEquals("first", cache.getById(1L));
+        assertEquals("third", cache.getById(3L));
+    }
+
+    @Test
+    void shouldIncrementFrequencyOnSaveOfExistingId() {
+        // given
+        cache.save(1L, "first");
+
+        // when
+        cache.save(1L, "updated");
+
+        // then
+        assertEquals(2L, cache.frequencyOf(1L));
+        assertEquals("updated", cache.getById(1L));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void shouldBehaveLikeReferenceLFU() {
+        // given
+        ReferenceLFU expected = new ReferenceLFU(CACHE_SIZE);
+        SplittableRandom random = new SplittableRandom(42);
+
+        // when, then
+        for (int i = 0; i < OPERATIONS; i++) {
+            Long id = (long) random.nextInt(CACHE_SIZE * 3);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    cache.save(id, id);
+                    expected.save(id, id);
+                }
+                case 1 -> {
+                    cache.delete(id);
+                    expected.delete(id);
+                }
+                default -> assertEquals(expected.getById(id), cache.getById(id));
+            }
+            assertEquals(expected.frequencyOf(id), cache.frequencyOf(id));
+        }
+        assertEquals(expected.size(), cache.size());
+    }
+
+    @Test
+    void shouldNotAllocateOnEvictionWhenWarmedUp() {
+        // given
+        Object value = new Object();
+        Long[] newIds = new Long[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            newIds[i] = (long) i;
+        }
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            saveAndGet(newIds, value);
+        }
+
+        // when
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        saveAndGet(newIds, value);
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        // then
+        assertEquals(CACHE_SIZE, cache.size());
+        assertEquals(0L, allocated);
+    }
+
+    private void saveAndGet(Long[] ids, Object value) {
+        for (Long id : ids) {
+            cache.save(id, value);
+            cache.getById(id);
+        }
+    }
+
+    /**
+     * Простая модель LFU с перебором всех элементов при вытеснении:
+     * из элементов с самым маленьким счетчиком вытесняется самый
+     * последний добавленный в кэш.
+     */
+    private static final class ReferenceLFU {
+
+        private final int sizeCache;
+        private final Map<Long, Object> values = new HashMap<>();
+        private final Map<Long, Long> counters = new HashMap<>();
+        private final Map<Long, Long> sequences = new HashMap<>();
+        private long insertions;
+
+        ReferenceLFU(int sizeCache) {
+            this.sizeCache = sizeCache;
+        }
+
+        void save(Long id, Object object) {
+            if (!values.containsKey(id)) {
+                if (values.size() >= sizeCache) {
+                    evict();
+                }
+                counters.put(id, 0L);
+                sequences.put(id, ++insertions);
+            }
+            values.put(id, object);
+            counters.merge(id, 1L, Long::sum);
+        }
+
+        Object getById(Long id) {
+            if (!values.containsKey(id)) {
+                return null;
+            }
+            counters.merge(id, 1L, Long::sum);
+            return values.get(id);
+        }
+
+        void delete(Long id) {
+            values.remove(id);
+            counters.remove(id);
+            sequences.remove(id);
+        }
+
+        long frequencyOf(Long id) {
+            return counters.getOrDefault(id, 0L);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        private void evict() {
+            Long victim = null;
+            for (Long id : values.keySet()) {
+                if (victim == null
+                        || counters.get(id) < counters.get(victim)
+                        || counters.get(id).equals(counters.get(victim))
+                        && sequences.get(id) > sequences.get(victim)) {
+                    victim = id;
+                }
+            }
+            delete(victim);
+        }
+
+    }
+
+}
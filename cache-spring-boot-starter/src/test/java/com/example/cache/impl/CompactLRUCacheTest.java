@@ -0,0 +1,108 @@
+package com.example.cache.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CompactLRUCacheTest {
+
+    private static final int CACHE_SIZE = 1_000;
+    private static final int OPERATIONS = 200_000;
+    private static final int WARM_UP_ROUNDS = 5;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private CompactLRUCache<Object> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CompactLRUCache<>();
+        cache.setSizeCache(CACHE_SIZE);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsed() {
+        // given
+        cache.setSizeCache(3);
+        cache.save(1L, "first");
+        cache.save(2L, "second");
+        cache.save(3L, "third");
+        cache.getById(1L);
+
+        // when
+        cache.save(4L, "fourth");
+
+        // then
+        assertNull(cache.getById(2L));
+        assertEquals("first", cache.getById(1L));
+        assertEquals("third", cache.getById(3L));
+        assertEquals("fourth", cache.getById(4L));
+    }
+
+    @Test
+    void shouldBehaveLikeAccessOrderedLinkedHashMap() {
+        // given
+        Map<Long, Object> expected = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Object> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+        SplittableRandom random = new SplittableRandom(42);
+
+        // when, then
+        for (int i = 0; i < OPERATIONS; i++) {
+            Long id = (long) random.nextInt(CACHE_SIZE * 3);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    cache.save(id, id);
+                    expected.put(id, id);
+                }
+                case 1 -> {
+                    cache.delete(id);
+                    expected.remove(id);
+                }
+                default -> assertEquals(expected.get(id), cache.getById(id));
+            }
+        }
+        assertEquals(expected.size(), cache.size());
+    }
+
+    @Test
+    void shouldNotAllocateOnEvictionWhenWarmedUp() {
+        // given
+        Object value = new Object();
+        Long[] newIds = new Long[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            newIds[i] = (long) i;
+        }
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            saveAndGet(newIds, value);
+        }
+
+        // when
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        saveAndGet(newIds, value);
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        // then
+        assertEquals(CACHE_SIZE, cache.size());
+        assertEquals(0L, allocated);
+    }
+
+    private void saveAndGet(Long[] ids, Object value) {
+        for (Long id : ids) {
+            cache.save(id, value);
+            cache.getById(id);
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.example.cache.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpiringCacheTest {
+
+    private static final int CACHE_SIZE = 100;
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private long now;
+    private CompactLRUCache<Object> delegate;
+    private ExpiringCache<Object> cache;
+
+    @BeforeEach
+    void setUp() {
+        now = 1_000_000_000L;
+        delegate = new CompactLRUCache<>();
+        cache = new ExpiringCache<>(delegate, TTL, 0.8, () -> now);
+        cache.setSizeCache(CACHE_SIZE);
+    }
+
+    @Test
+    void shouldReturnObjectBeforeTtl() {
+        // given
+        cache.save(1L, "first");
+
+        // when
+        tick(TTL.minusSeconds(1));
+
+        // then
+        assertEquals("first", cache.getById(1L));
+    }
+
+    @Test
+    void shouldExpireObjectAfterTtl() {
+        // given
+        cache.save(1L, "first");
+
+        // when
+        tick(TTL);
+
+        // then
+        assertNull(cache.getById(1L));
+        assertFalse(delegate.contains(1L));
+    }
+
+    @Test
+    void shouldRemoveExpiredObjectsWithoutAccessingThem() {
+        // given
+        for (long id = 0; id < 10; id++) {
+            cache.save(id, id);
+        }
+
+        // when
+        tick(TTL.plusMinutes(2));
+        cache.save(100L, "other");
+
+        // then
+        assertEquals(1, delegate.size());
+    }
+
+    @Test
+    void shouldUsePerEntryTtl() {
+        // given
+        cache.save(1L, "short", TimeUnit.SECONDS.toMillis(10));
+        cache.save(2L, "default");
+
+        // when
+        tick(Duration.ofSeconds(11));
+
+        // then
+        assertNull(cache.getById(1L));
+        assertEquals("default", cache.getById(2L));
+    }
+
+    @Test
+    void shouldRestartTtlOnSave() {
+        // given
+        cache.save(1L, "first");
+        tick(TTL.minusSeconds(10));
+
+        // when
+        cache.save(1L, "updated");
+        tick(Duration.ofSeconds(20));
+
+        // then
+        assertEquals("updated", cache.getById(1L));
+    }
+
+    @Test
+    void shouldAskForRefreshOnceNearExpiry() {
+        // given
+        cache.save(1L, "first");
+        tick(Duration.ofMinutes(3));
+        assertFalse(cache.needsRefresh(1L));
+
+        // when
+        tick(Duration.ofMinutes(1));
+
+        // then
+        assertTrue(cache.needsRefresh(1L));
+        assertFalse(cache.needsRefresh(1L));
+        cache.save(1L, "refreshed");
+        assertFalse(cache.needsRefresh(1L));
+    }
+
+    @Test
+    void shouldNotExpireWithoutTtl() {
+        // given
+        cache = new ExpiringCache<>(delegate, Duration.ZERO, 0.8, () -> now);
+        cache.setSizeCache(CACHE_SIZE);
+        cache.save(1L, "first");
+
+        // when
+        tick(Duration.ofDays(365));
+
+        // then
+        assertEquals("first", cache.getById(1L));
+        assertFalse(cache.needsRefresh(1L));
+    }
+
+    private void tick(Duration duration) {
+        now += duration.toNanos();
+    }
+
+}
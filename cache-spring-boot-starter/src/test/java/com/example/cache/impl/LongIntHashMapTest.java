@@ -0,0 +1,84 @@
+package com.example.cache.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongIntHashMapTest {
+
+    @Test
+    void shouldPutGetAndRemove() {
+        // given
+        LongIntHashMap map = new LongIntHashMap();
+
+        // when
+        int previous = map.put(Long.MIN_VALUE, 1);
+        map.put(0L, 2);
+        map.put(-1L, 3);
+
+        // then
+        assertEquals(LongIntHashMap.NO_VALUE, previous);
+        assertEquals(1, map.get(Long.MIN_VALUE));
+        assertEquals(2, map.get(0L));
+        assertEquals(3, map.remove(-1L));
+        assertEquals(LongIntHashMap.NO_VALUE, map.get(-1L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void shouldRejectNegativeValue() {
+        // given
+        LongIntHashMap map = new LongIntHashMap();
+
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, -1));
+    }
+
+    @Test
+    void shouldNotGrowBeyondExpectedSize() {
+        // given
+        LongIntHashMap map = new LongIntHashMap(1_000);
+        int capacity = map.capacity();
+
+        // when
+        for (int i = 0; i < 1_000; i++) {
+            map.put(i, i);
+        }
+
+        // then
+        assertEquals(capacity, map.capacity());
+        assertEquals(1_000, map.size());
+    }
+
+    @Test
+    void shouldMatchHashMapUnderRandomOperations() {
+        // given
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+
+        // when
+        for (int i = 0; i < 500_000; i++) {
+            long key = random.nextInt(10_000) * 1024L;
+            if (random.nextInt(3) == 0) {
+                assertEquals((int) expected.getOrDefault(key, LongIntHashMap.NO_VALUE), map.remove(key));
+                expected.remove(key);
+            } else {
+                assertEquals((int) expected.getOrDefault(key, LongIntHashMap.NO_VALUE), map.put(key, i));
+                expected.put(key, i);
+            }
+        }
+
+        // then
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 10_000 * 1024L; key += 1024) {
+            assertEquals((int) expected.getOrDefault(key, LongIntHashMap.NO_VALUE), map.get(key));
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.example.cache.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapCacheTest {
+
+    private static final int SLAB_SIZE = 1024;
+
+    private OffHeapCache<String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OffHeapCache<>(new StringSerializer(), 16 * SLAB_SIZE, SLAB_SIZE);
+        cache.setSizeCache(3);
+    }
+
+    @Test
+    void shouldReturnCopyOfSavedObject() {
+        // given
+        String value = new String("first");
+        cache.save(1L, value);
+
+        // when
+        String cached = cache.getById(1L);
+
+        // then
+        assertEquals(value, cached);
+        assertNotSame(value, cached);
+        assertTrue(cache.contains(1L));
+    }
+
+    @Test
+    void shouldReplaceAndDeleteObject() {
+        // given
+        cache.save(1L, "first");
+        cache.save(1L, "a much longer value that moves to another size class");
+
+        // when
+        String replaced = cache.getById(1L);
+        cache.delete(1L);
+
+        // then
+        assertEquals("a much longer value that moves to another size class", replaced);
+        assertNull(cache.getById(1L));
+        assertFalse(cache.contains(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedAcrossSizes() {
+        // given
+        cache.save(1L, "first");
+        cache.save(2L, "x".repeat(200));
+        cache.save(3L, "third");
+        cache.getById(1L);
+
+        // when
+        cache.save(4L, "fourth");
+
+        // then
+        assertNull(cache.getById(2L));
+        assertEquals("first", cache.getById(1L));
+        assertEquals("third", cache.getById(3L));
+        assertEquals("fourth", cache.getById(4L));
+    }
+
+    @Test
+    void shouldSkipObjectLargerThanSlab() {
+        // when
+        cache.save(1L, "x".repeat(SLAB_SIZE + 1));
+
+        // then
+        assertNull(cache.getById(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldEvictSameSizeObjectsWhenMemoryIsExhausted() {
+        // given
+        cache = new OffHeapCache<>(new StringSerializer(), 2 * SLAB_SIZE, SLAB_SIZE);
+        cache.setSizeCache(100);
+        for (long id = 0; id < 4; id++) {
+            cache.save(id, "x".repeat(500));
+        }
+
+        // when
+        cache.save(4L, "y".repeat(500));
+
+        // then
+        assertEquals(4, cache.size());
+        assertNull(cache.getById(0L));
+        assertEquals("y".repeat(500), cache.getById(4L));
+        assertEquals(2 * SLAB_SIZE, cache.offHeapBytes());
+    }
+
+    @Test
+    void shouldMoveSlabToAnotherSizeWhenMemoryIsExhausted() {
+        // given
+        cache = new OffHeapCache<>(new StringSerializer(), 2 * SLAB_SIZE, SLAB_SIZE);
+        cache.setSizeCache(100);
+        for (long id = 0; id < 32; id++) {
+            cache.save(id, "x".repeat(60));
+        }
+
+        // when
+        cache.save(32L, "y".repeat(500));
+
+        // then
+        assertEquals("y".repeat(500), cache.getById(32L));
+        assertNull(cache.getById(0L));
+        assertEquals("x".repeat(60), cache.getById(31L));
+        assertEquals(17, cache.size());
+        assertEquals(2 * SLAB_SIZE, cache.offHeapBytes());
+    }
+
+    @Test
+    void shouldMatchHashMapUnderRandomOperations() {
+        // given
+        cache = new OffHeapCache<>(new StringSerializer(), 1024 * SLAB_SIZE, SLAB_SIZE);
+        cache.setSizeCache(10_000);
+        Map<Long, String> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+
+        // when
+        for (int i = 0; i < 100_000; i++) {
+            long id = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                cache.delete(id);
+                expected.remove(id);
+            } else {
+                String value = "v".repeat(random.nextInt(300)) + id;
+                cache.save(id, value);
+                expected.put(id, value);
+            }
+        }
+
+        // then
+        assertEquals(expected.size(), cache.size());
+        for (long id = 0; id < 500; id++) {
+            assertEquals(expected.get(id), cache.getById(id));
+        }
+    }
+
+    private static class StringSerializer implements ValueSerializer<String> {
+
+        @Override
+        public byte[] serialize(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String deserialize(ByteBuffer source) {
+            byte[] bytes = new byte[source.remaining()];
+            source.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+    }
+
+}
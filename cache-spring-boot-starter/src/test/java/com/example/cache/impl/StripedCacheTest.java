@@ -0,0 +1,104 @@
+package com.example.cache.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedCacheTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 50_000;
+    private static final int KEY_SPACE = 10_000;
+
+    @Test
+    void shouldRoundStripesUpToPowerOfTwo() {
+        // when
+        StripedCache<Object> cache = new StripedCache<>(5, CompactLRUCache::new);
+
+        // then
+        assertEquals(8, cache.stripes());
+    }
+
+    @Test
+    void shouldHoldAtMostSizeCacheEntries() {
+        // given
+        StripedCache<Long> cache = new StripedCache<>(64, CompactLRUCache::new);
+        cache.setSizeCache(5);
+
+        // when
+        for (long id = 0; id < 1_000; id++) {
+            cache.save(id, id);
+        }
+
+        // then
+        long stored = 0;
+        for (long id = 0; id < 1_000; id++) {
+            if (cache.contains(id)) {
+                stored++;
+            }
+        }
+        assertEquals(4, cache.stripes());
+        assertTrue(stored <= 5, "stored " + stored);
+    }
+
+    @Test
+    void shouldSaveGetAndDelete() {
+        // given
+        StripedCache<String> cache = new StripedCache<>(4, CompactLRUCache::new);
+        cache.setSizeCache(100);
+
+        // when
+        cache.save(1L, "first");
+        cache.save(2L, "second");
+        cache.delete(2L);
+
+        // then
+        assertEquals("first", cache.getById(1L));
+        assertNull(cache.getById(2L));
+    }
+
+    @Test
+    void shouldStayConsistentUnderConcurrentAccess() throws Exception {
+        // given
+        StripedCache<Long> cache = new StripedCache<>(8, CompactLFUCache::new);
+        cache.setSizeCache(1_000);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                SplittableRandom random = new SplittableRandom();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    long id = random.nextInt(KEY_SPACE);
+                    switch (random.nextInt(3)) {
+                        case 0 -> cache.save(id, id);
+                        case 1 -> cache.delete(id);
+                        default -> {
+                            Long value = cache.getById(id);
+                            if (value != null && value.longValue() != id) {
+                                throw new IllegalStateException("Wrong value " + value + " for id " + id);
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+
+        // then
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.example.cache.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WTinyLFUCacheTest {
+
+    private static final int CACHE_SIZE = 100;
+
+    private WTinyLFUCache<Object> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new WTinyLFUCache<>();
+        cache.setSizeCache(CACHE_SIZE);
+    }
+
+    @Test
+    void shouldSaveGetAndDelete() {
+        // given
+        cache.save(1L, "first");
+        cache.save(2L, "second");
+
+        // when
+        cache.delete(2L);
+
+        // then
+        assertEquals("first", cache.getById(1L));
+        assertNull(cache.getById(2L));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void shouldNotExceedSizeCache() {
+        // when
+        for (long id = 0; id < CACHE_SIZE * 10; id++) {
+            cache.save(id, id);
+        }
+
+        // then
+        assertEquals(CACHE_SIZE, cache.size());
+    }
+
+    @Test
+    void shouldKeepPopularEntriesDuringScan() {
+        // given
+        long popular = CACHE_SIZE / 2;
+        for (int round = 0; round < 5; round++) {
+            for (long id = 0; id < popular; id++) {
+                readThrough(id);
+            }
+        }
+
+        // when
+        for (long id = 1_000; id < 11_000; id++) {
+            readThrough(id);
+        }
+
+        // then
+        int survived = 0;
+        for (long id = 0; id < popular; id++) {
+            if (cache.getById(id) != null) {
+                survived++;
+            }
+        }
+        assertTrue(survived >= popular * 9 / 10, "popular entries survived: " + survived);
+    }
+
+    private void readThrough(long id) {
+        if (cache.getById(id) == null) {
+            cache.save(id, id);
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.example.config;
+
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Кэши сервиса в Redis. Кэши создаются при старте и собирают статистику,
+ * чтобы по каждому из них были метрики попаданий и промахов (cache.gets).
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public RedisCacheManagerBuilderCustomizer cacheStatisticsCustomizer() {
+        return builder -> builder
+                .enableStatistics()
+                .initialCacheNames(Set.of("comments", "authors"));
+    }
+
+}
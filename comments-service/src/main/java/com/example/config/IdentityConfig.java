@@ -0,0 +1,16 @@
+package com.example.config;
+
+import com.example.identity.IdentityHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdentityConfig {
+
+    @Bean
+    public IdentityHeader identityHeader(@Value("${token.signing.key}") String tokenSigningKey) {
+        return IdentityHeader.fromTokenSigningKey(tokenSigningKey);
+    }
+
+}
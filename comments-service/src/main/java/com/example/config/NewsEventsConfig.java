@@ -0,0 +1,44 @@
+package com.example.config;
+
+import com.example.news.NewsEventListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamReadRequest;
+
+import java.time.Duration;
+
+/**
+ * Чтение событий News из потока Redis. Поток читается с начала, поэтому
+ * при старте реестр News восстанавливается по прошлым событиям. news-service
+ * хранит в потоке только последние news.events.max-length событий, поэтому
+ * время восстановления ограничено, а News, не попавшие в поток, проверяются
+ * запросом к news-service.
+ * Ошибки чтения (например, Redis недоступен) не останавливают подписку.
+ */
+@Configuration
+public class NewsEventsConfig {
+
+    @Value("${news.events.stream:news-events}")
+    private String newsEventsStream;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public StreamMessageListenerContainer<String, MapRecord<String, String, String>> newsEventsListenerContainer(
+            RedisConnectionFactory redisConnectionFactory, NewsEventListener newsEventListener) {
+        StreamMessageListenerContainer<String, MapRecord<String, String, String>> container =
+                StreamMessageListenerContainer.create(redisConnectionFactory,
+                        StreamMessageListenerContainerOptions.builder()
+                                .pollTimeout(Duration.ofSeconds(1))
+                                .build());
+        container.register(StreamReadRequest.builder(StreamOffset.fromStart(newsEventsStream))
+                .cancelOnError(e -> false)
+                .build(), newsEventListener);
+        return container;
+    }
+
+}
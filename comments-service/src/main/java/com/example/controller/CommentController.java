@@ -9,6 +9,8 @@ import com.example.exception.NoAccessException;
 import com.example.exception.TokenIsNotValidException;
 import com.example.exception.WrongAuthorException;
 import com.example.mapper.CommentMapper;
+import com.example.pagination.Cursor;
+import com.example.pagination.CursorResponse;
 import com.example.security.JwtUtil;
 import com.example.security.SecurityService;
 import com.example.security.User;
@@ -60,6 +62,26 @@ public class CommentController {
         return commentService.findAllCommentsByNewsId(newsId, page, size, orderBy, direction).map(commentMapper::dtoToResponse);
     }
 
+    @Operation(summary = "Find Comment by cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Find Comment after cursor", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = CursorResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor supplied"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @LogMethodExecutionTime
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/{newsId}/comments/cursor")
+    public CursorResponse<CommentResponse> findAllWithCursor(
+            @PathVariable @NotNull @Positive Long newsId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = Constants.DEFAULT_PAGE_SIZE) @Positive Integer size,
+            @RequestParam(value = "direction", defaultValue = Constants.DEFAULT_DIRECTION) String direction) {
+        log.info("Find comments by news with id {} after cursor {}", newsId, cursor);
+        return CursorResponse.of(commentService.findAllCommentsByNewsIdWithCursor(newsId, cursor, size, direction)
+                        .map(commentMapper::dtoToResponse),
+                comment -> Cursor.encode(comment.getUpdateDate(), comment.getId()));
+    }
+
     @Operation(summary = "Save Comment")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Save Comment", content = {
@@ -0,0 +1,52 @@
+package com.example.news;
+
+import com.example.newsservice.CachingNewsServiceClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.stream.StreamListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Применяет к {@link NewsRegistry} события создания и удаления News
+ * из потока Redis, в который их публикует news-service.
+ * Событие - поля type (CREATED или DELETED) и newsId.
+ * Удаленная News сразу удаляется и из кэша ответов news-service.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NewsEventListener implements StreamListener<String, MapRecord<String, String, String>> {
+
+    private static final String TYPE = "type";
+    private static final String NEWS_ID = "newsId";
+    private static final String CREATED = "CREATED";
+    private static final String DELETED = "DELETED";
+
+    private final NewsRegistry newsRegistry;
+    private final CachingNewsServiceClient newsServiceClient;
+
+    @Override
+    public void onMessage(MapRecord<String, String, String> message) {
+        Map<String, String> event = message.getValue();
+        Long newsId;
+        try {
+            newsId = Long.valueOf(event.get(NEWS_ID));
+        } catch (NumberFormatException e) {
+            log.warn("Skip news event {} without news id: {}", message.getId(), event);
+            return;
+        }
+        String type = event.get(TYPE);
+        if (CREATED.equals(type)) {
+            newsRegistry.created(newsId);
+        } else if (DELETED.equals(type)) {
+            newsRegistry.deleted(newsId);
+            newsServiceClient.evict(newsId);
+        } else {
+            log.warn("Skip news event {} of unknown type {}", message.getId(), type);
+        }
+    }
+
+}
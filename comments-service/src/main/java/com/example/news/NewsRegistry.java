@@ -0,0 +1,109 @@
+package com.example.news;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Реестр существующих News в памяти comments-service.
+ * <p>
+ * Существование News - только подсказка: запись живет news.registry.ttl
+ * (по умолчанию 5 минут) после события создания или подтверждения от
+ * news-service, затем News снова проверяется запросом к news-service.
+ * Поэтому потерянное событие удаления (например, Redis был недоступен
+ * при публикации) оставляет удаленную News доступной не дольше TTL.
+ * Записей не больше news.registry.max-size.
+ * <p>
+ * Удаленные News хранятся битовым набором по id бессрочно: id News не
+ * переиспользуются, поэтому удаленная News больше не может стать
+ * существующей - ответ news-service, полученный раньше события
+ * удаления, ее не вернет. Один бит на id: миллион News - около 125 КБ.
+ * <p>
+ * Наполняется событиями news-service ({@link NewsEventListener}) и
+ * подтверждениями от news-service.
+ */
+@Slf4j
+@Component
+public class NewsRegistry {
+
+    private final Cache<Long, Boolean> existing;
+    private final BitSet deleted = new BitSet();
+    private final Lock lock = new ReentrantLock();
+
+    @Autowired
+    public NewsRegistry(@Value("${news.registry.ttl:5m}") Duration ttl,
+                        @Value("${news.registry.max-size:100000}") long maxSize) {
+        this(ttl, maxSize, Ticker.systemTicker());
+    }
+
+    NewsRegistry(Duration ttl, long maxSize, Ticker ticker) {
+        this.existing = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Возвращает true, если News существовала не раньше news.registry.ttl
+     * назад и события ее удаления не было. false - News удалена или
+     * ее нужно проверить запросом к news-service.
+     */
+    public boolean exists(Long newsId) {
+        return isTracked(newsId) && existing.getIfPresent(newsId) != null;
+    }
+
+    /**
+     * News создана (событие news-service) или найдена запросом к news-service.
+     * Удаленная News не отмечается.
+     */
+    public void created(Long newsId) {
+        if (!isTracked(newsId)) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (!deleted.get(newsId.intValue())) {
+                existing.put(newsId, Boolean.TRUE);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void deleted(Long newsId) {
+        if (!isTracked(newsId)) {
+            return;
+        }
+        lock.lock();
+        try {
+            deleted.set(newsId.intValue());
+            existing.invalidate(newsId);
+        } finally {
+            lock.unlock();
+        }
+        log.debug("News {} is deleted", newsId);
+    }
+
+    /**
+     * Возвращает количество существующих News в реестре.
+     */
+    public int size() {
+        existing.cleanUp();
+        return (int) existing.estimatedSize();
+    }
+
+    private static boolean isTracked(Long newsId) {
+        return newsId != null && newsId > 0 && newsId <= Integer.MAX_VALUE;
+    }
+
+}
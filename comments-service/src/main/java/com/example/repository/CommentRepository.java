@@ -3,11 +3,53 @@ package com.example.repository;
 import com.example.entity.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     Page<Comment> findAllByNewsId(Long newsId, Pageable pageable);
+
+    /**
+     * Возвращает id Comment данной News. При сортировке по updateDate и id
+     * страница и подсчет количества читаются только из частичного индекса
+     * (news_id, update_date, id) WHERE deleted = false: пропускаемые строки
+     * страниц не загружаются из таблицы.
+     */
+    @Query(value = "select c.id from Comment c where c.newsId = :newsId",
+            countQuery = "select count(c.id) from Comment c where c.newsId = :newsId")
+    Page<Long> findIdsByNewsId(@Param("newsId") Long newsId, Pageable pageable);
+
+    @Query("select c from Comment c join fetch c.author where c.id in :ids")
+    List<Comment> findAllWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select c from Comment c join fetch c.author where c.newsId = :newsId "
+            + "order by c.updateDate asc, c.id asc")
+    Slice<Comment> findFirstSliceAsc(@Param("newsId") Long newsId, Pageable pageable);
+
+    @Query("select c from Comment c join fetch c.author where c.newsId = :newsId "
+            + "order by c.updateDate desc, c.id desc")
+    Slice<Comment> findFirstSliceDesc(@Param("newsId") Long newsId, Pageable pageable);
+
+    /**
+     * Условие c.updateDate >= :updateDate дублирует условие курсора,
+     * чтобы оно стало границей просмотра индекса (news_id, update_date, id).
+     */
+    @Query("select c from Comment c join fetch c.author where c.newsId = :newsId "
+            + "and c.updateDate >= :updateDate and (c.updateDate > :updateDate or c.id > :id) "
+            + "order by c.updateDate asc, c.id asc")
+    Slice<Comment> findSliceAfterAsc(@Param("newsId") Long newsId, @Param("updateDate") LocalDateTime updateDate,
+                                     @Param("id") Long id, Pageable pageable);
+
+    @Query("select c from Comment c join fetch c.author where c.newsId = :newsId "
+            + "and c.updateDate <= :updateDate and (c.updateDate < :updateDate or c.id < :id) "
+            + "order by c.updateDate desc, c.id desc")
+    Slice<Comment> findSliceAfterDesc(@Param("newsId") Long newsId, @Param("updateDate") LocalDateTime updateDate,
+                                      @Param("id") Long id, Pageable pageable);
 }
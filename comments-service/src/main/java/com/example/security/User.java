@@ -1,10 +1,11 @@
 package com.example.security;
 
+import com.example.authorization.Role;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
@@ -12,8 +13,7 @@ import java.util.List;
 public class User {
 
     private String sub;
-    private Integer iat;
-    private Integer exp;
-    private List <String> roles;
+    private Long exp;
+    private Set<Role> roles;
 
 }
@@ -3,6 +3,7 @@ package com.example.service;
 import com.example.controller.request.CommentRequest;
 import com.example.entity.dto.CommentDto;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public interface CommentService {
 
@@ -15,4 +16,6 @@ public interface CommentService {
     CommentDto findById(Long newsId, Long commentId);
 
     Page<CommentDto> findAllCommentsByNewsId(Long newsId, Integer page, Integer size, String orderBy, String direction);
+
+    Slice<CommentDto> findAllCommentsByNewsIdWithCursor(Long newsId, String cursor, Integer size, String direction);
 }
@@ -67,7 +67,6 @@ public class AuthorServiceImpl implements AuthorService {
      */
     @Override
     @Transactional
-    @CacheEvict(cacheNames = "authors", allEntries = true)
     public AuthorDto save(AuthorDto author) {
         author.setRegistrationDate(LocalDateTime.now());
         log.debug("Save author: {}", author);
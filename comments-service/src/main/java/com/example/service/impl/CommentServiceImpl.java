@@ -9,8 +9,9 @@ import com.example.exception.AuthorIsBlockedException;
 import com.example.exception.CommentNotCorrespondsToNewException;
 import com.example.exception.EntityNotFoundException;
 import com.example.mapper.CommentMapper;
-import com.example.newsservice.NewsResponse;
+import com.example.news.NewsRegistry;
 import com.example.newsservice.NewsServiceClient;
+import com.example.pagination.Cursor;
 import com.example.repository.CommentRepository;
 import com.example.service.AuthorService;
 import com.example.service.CommentService;
@@ -23,11 +24,15 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -40,6 +45,7 @@ public class CommentServiceImpl implements CommentService {
     private final CommentMapper commentMapper;
     private final AuthorService authorService;
     private final NewsServiceClient newsServiceClient;
+    private final NewsRegistry newsRegistry;
 
     /**
      * Создаёт новоый Comment из CommentRequest
@@ -55,9 +61,8 @@ public class CommentServiceImpl implements CommentService {
      */
     @Override
     @Transactional
-    @CacheEvict(cacheNames = "comments", allEntries = true)
     public CommentDto save(Long newsId, CommentRequest commentRequest) {
-        NewsResponse news = newsServiceClient.getNewsById(newsId);
+        checkNewsExists(newsId);
         Author author = authorService.findByUsername(commentRequest.getUsername());
         if(author.isBlocked()){
             throw new AuthorIsBlockedException(author.getId());
@@ -68,7 +73,7 @@ public class CommentServiceImpl implements CommentService {
                 .updateDate(createDate)
                 .text(commentRequest.getText())
                 .author(author)
-                .newsId(news.getId())
+                .newsId(newsId)
                 .build();
         return commentMapper.entityToDto(commentRepository.save(comment));
     }
@@ -87,10 +92,10 @@ public class CommentServiceImpl implements CommentService {
     @Transactional
     @CacheEvict(cacheNames = "comments", key="#commentId")
     public void deleteById(Long newsId, Long commentId) {
-        NewsResponse news = newsServiceClient.getNewsById(newsId);
+        checkNewsExists(newsId);
         Comment comment = getById(commentId);
         log.debug("Delete comment with id: {}", commentId);
-        if(news.getId() != comment.getNewsId()){
+        if(!newsId.equals(comment.getNewsId())){
             throw new CommentNotCorrespondsToNewException(commentId, newsId);
         } else {
             commentRepository.delete(comment);
@@ -117,7 +122,7 @@ public class CommentServiceImpl implements CommentService {
     @CacheEvict(cacheNames = "comments", key = "#commentId")
     public CommentDto update(Long newsId, Long commentId, CommentRequest commentRequest) {
         log.debug("Update comment with id: {}", commentId);
-        NewsResponse news = newsServiceClient.getNewsById(newsId);
+        checkNewsExists(newsId);
         Author author = authorService.findByUsername(commentRequest.getUsername());
         Comment comment = getById(commentId);
         if(author.isBlocked()){
@@ -126,7 +131,7 @@ public class CommentServiceImpl implements CommentService {
         if(comment.getAuthor().getId() != author.getId()){
             throw new AuthorDoesNotMatchException();
         }
-        if(news.getId() != comment.getNewsId()){
+        if(!newsId.equals(comment.getNewsId())){
             throw new CommentNotCorrespondsToNewException(commentId, newsId);
         } else {
             comment.setUpdateDate(LocalDateTime.now());
@@ -150,9 +155,9 @@ public class CommentServiceImpl implements CommentService {
     @Cacheable(cacheNames = "comments", key = "#commentId")
     public CommentDto findById(Long newsId, Long commentId) {
         log.debug("Find comment with id: {}", commentId);
-        NewsResponse news = newsServiceClient.getNewsById(newsId);
+        checkNewsExists(newsId);
         Comment comment = getById(commentId);
-        if(news.getId() != comment.getNewsId()){
+        if(!newsId.equals(comment.getNewsId())){
             throw new CommentNotCorrespondsToNewException(commentId, newsId);
         } else {
             return commentMapper.entityToDto(comment);
@@ -170,7 +175,7 @@ public class CommentServiceImpl implements CommentService {
      */
     @Override
     public Page<CommentDto> findAllCommentsByNewsId(Long newsId, Integer page, Integer size, String orderBy, String direction) {
-        NewsResponse news = newsServiceClient.getNewsById(newsId);
+        checkNewsExists(newsId);
         log.info("Show comment on the page {}", page );
         if (orderBy == null || orderBy.isEmpty()) {
             orderBy = Constants.DEFAULT_COMMENTS_ORDER_BY;
@@ -178,14 +183,82 @@ public class CommentServiceImpl implements CommentService {
         if (direction == null || direction.isEmpty()) {
             direction = Constants.DEFAULT_DIRECTION;
         }
+        if (orderBy.equals(Constants.DEFAULT_COMMENTS_ORDER_BY)) {
+            return findAllByNewsIdInIndexOrder(newsId, page, size, direction);
+        }
         Pageable pageRequest = PageRequest.of(page, size, Sort.by(orderBy).ascending());
         if (direction.equals("DESC")){
             pageRequest = PageRequest.of(page, size, Sort.by(orderBy).descending());
         }
-        Page<Comment> foundComments = commentRepository.findAllByNewsId(news.getId(), pageRequest);
+        Page<Comment> foundComments = commentRepository.findAllByNewsId(newsId, pageRequest);
         return foundComments.map(commentMapper::entityToDto);
     }
 
+    /**
+     * Страница Comment в порядке индекса (news_id, update_date, id):
+     * сначала из индекса читаются id страницы и количество, затем
+     * одним запросом загружаются только Comment этой страницы.
+     */
+    private Page<CommentDto> findAllByNewsIdInIndexOrder(Long newsId, Integer page, Integer size, String direction) {
+        Sort sort = Sort.by(Comment.Fields.updateDate, Comment.Fields.id).ascending();
+        if (direction.equals("DESC")){
+            sort = sort.descending();
+        }
+        Page<Long> ids = commentRepository.findIdsByNewsId(newsId, PageRequest.of(page, size, sort));
+        if (ids.isEmpty()) {
+            return ids.map(id -> null);
+        }
+        Map<Long, Comment> comments = commentRepository.findAllWithAuthorByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Comment::getId, Function.identity()));
+        return ids.map(id -> commentMapper.entityToDto(comments.get(id)));
+    }
+
+    /**
+     * Возвращает Comment данной News, отсортированные по дате обновления
+     * и id, начиная сразу после курсора. Общее количество не считается.
+     *
+     * @param newsId id News
+     * @param cursor курсор последнего показанного Comment, null - первая страница
+     * @param size количество Comment на странице (по умолчанию 15)
+     * @param direction как сотрировать (по умолчению "ASC")
+     * @return срез с информацией о CommentDto
+     * @throws IllegalArgumentException если курсор некорректный
+     */
+    @Override
+    public Slice<CommentDto> findAllCommentsByNewsIdWithCursor(Long newsId, String cursor, Integer size, String direction) {
+        checkNewsExists(newsId);
+        log.info("Show comments after cursor {}", cursor);
+        boolean descending = Sort.Direction.DESC.name().equals(direction);
+        Pageable pageRequest = PageRequest.ofSize(size);
+        Slice<Comment> foundComments;
+        if (cursor == null || cursor.isEmpty()) {
+            foundComments = descending
+                    ? commentRepository.findFirstSliceDesc(newsId, pageRequest)
+                    : commentRepository.findFirstSliceAsc(newsId, pageRequest);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            foundComments = descending
+                    ? commentRepository.findSliceAfterDesc(newsId, after.getUpdateDate(), after.getId(), pageRequest)
+                    : commentRepository.findSliceAfterAsc(newsId, after.getUpdateDate(), after.getId(), pageRequest);
+        }
+        return foundComments.map(commentMapper::entityToDto);
+    }
+
+    /**
+     * Проверяет, что News существует. Если News есть в реестре -
+     * без запроса к news-service, иначе запрашивает ее и отмечает в реестре.
+     *
+     * @param newsId id News
+     * @throws feign.FeignException если News не найдена или news-service недоступен
+     */
+    private void checkNewsExists(Long newsId) {
+        if (newsRegistry.exists(newsId)) {
+            return;
+        }
+        newsServiceClient.getNewsById(newsId);
+        newsRegistry.created(newsId);
+    }
+
     /**
      * Ищет Comment по идентификатору
      *
@@ -0,0 +1,144 @@
+package com.example.benchmark;
+
+import com.example.entity.Comment;
+import com.example.repository.CommentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Измеряет время получения страницы Comment одной News при 1M, 10M
+ * и 50M строк в таблице comment и проверяет, что запрос идет
+ * по частичному индексу (news_id, update_date, id).
+ * <p>
+ * Запускается только с -Dbenchmark.rows=N[,N...], например
+ * gradle :comments-service:commentsByNewsBenchmark.
+ */
+@Testcontainers
+@EnabledIfSystemProperty(named = "benchmark.rows", matches = "\\d+(,\\d+)*")
+@SpringBootTest(properties = {"spring.main.allow-bean-definition-overriding=true",
+        "spring.mvc.pathmatch.matching-strategy = ANT_PATH_MATCHER",
+        "spring.jpa.show-sql=false"})
+class CommentsByNewsBenchmarkIT {
+
+    private static final String INDEX_NAME = "idx_comment_news_id_update_date_id_active";
+    private static final long COMMENTS_PER_NEWS = 1_000;
+    private static final long ACTIVE_COMMENTS_PER_NEWS = COMMENTS_PER_NEWS - COMMENTS_PER_NEWS / 10;
+    private static final int SIZE = 15;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:12")
+            .withUsername("username")
+            .withPassword("password")
+            .withExposedPorts(5432);
+
+    @DynamicPropertySource
+    static void overrideProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgreSQLContainer::getDriverClassName);
+    }
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldMeasureCommentsPageLatency() {
+        Long authorId = jdbcTemplate.queryForObject("select min(id) from author", Long.class);
+        long filled = 0;
+        for (String value : System.getProperty("benchmark.rows").split(",")) {
+            // given
+            long rows = Long.parseLong(value);
+            fill(authorId, filled, rows);
+            filled = Math.max(filled, rows);
+            long newsId = rows / COMMENTS_PER_NEWS / 2 + 1;
+            int lastPage = (int) ((ACTIVE_COMMENTS_PER_NEWS - 1) / SIZE);
+
+            // when
+            long[] firstPage = measure(() -> page(newsId, 0));
+            long[] deepPage = measure(() -> page(newsId, lastPage));
+
+            // then
+            assertEquals(ACTIVE_COMMENTS_PER_NEWS, page(newsId, 0).getTotalElements());
+            assertTrue(plan(newsId).contains(INDEX_NAME), plan(newsId));
+            System.out.printf("%d comments: page 0 p50 %.2f ms, p95 %.2f ms; page %d p50 %.2f ms, p95 %.2f ms%n",
+                    rows, millis(firstPage, 0.5), millis(firstPage, 0.95),
+                    lastPage, millis(deepPage, 0.5), millis(deepPage, 0.95));
+        }
+    }
+
+    /**
+     * Тот же путь, что и в CommentServiceImpl: id страницы из индекса,
+     * затем Comment страницы одним запросом.
+     */
+    private Page<Comment> page(long newsId, int page) {
+        PageRequest pageRequest = PageRequest.of(page, SIZE, Sort.by(Comment.Fields.updateDate, Comment.Fields.id));
+        Page<Long> ids = commentRepository.findIdsByNewsId(newsId, pageRequest);
+        List<Comment> comments = ids.isEmpty() ? List.of() : commentRepository.findAllWithAuthorByIdIn(ids.getContent());
+        return ids.map(id -> comments.stream().filter(c -> c.getId().equals(id)).findFirst().orElseThrow());
+    }
+
+    /**
+     * Дополняет таблицу до rows строк: по COMMENTS_PER_NEWS Comment на News,
+     * каждый десятый удален.
+     */
+    private void fill(Long authorId, long from, long rows) {
+        if (rows <= from) {
+            return;
+        }
+        jdbcTemplate.update("insert into comment (create_date, update_date, text, news_id, author_id, deleted) "
+                + "select ts, ts, 'Comment ' || i, (i - 1) / ? + 1, ?, i % 10 = 0 "
+                + "from (select i, timestamp '2024-01-01' + i * interval '1 second' as ts "
+                + "from generate_series(? + 1, ?) as i) as s",
+                COMMENTS_PER_NEWS, authorId, from, rows);
+        jdbcTemplate.execute("vacuum analyze comment");
+    }
+
+    private String plan(long newsId) {
+        return String.join("\n", jdbcTemplate.queryForList("explain select id from comment "
+                + "where news_id = ? and deleted = false order by update_date, id limit " + SIZE,
+                String.class, newsId));
+    }
+
+    private static long[] measure(Supplier<?> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * sorted.length))] / 1_000_000.0;
+    }
+
+}
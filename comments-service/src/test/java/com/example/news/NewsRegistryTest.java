@@ -0,0 +1,82 @@
+package com.example.news;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NewsRegistryTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final NewsRegistry newsRegistry = new NewsRegistry(TTL, 1000, nanos::get);
+
+    @Test
+    void shouldKnowCreatedNews() {
+        // when
+        newsRegistry.created(1L);
+        newsRegistry.created(100_000L);
+
+        // then
+        assertTrue(newsRegistry.exists(1L));
+        assertTrue(newsRegistry.exists(100_000L));
+        assertFalse(newsRegistry.exists(2L));
+        assertEquals(2, newsRegistry.size());
+    }
+
+    @Test
+    void shouldCheckNewsAgainAfterTtl() {
+        // given
+        newsRegistry.created(1L);
+
+        // when
+        nanos.addAndGet(TTL.toNanos() + 1);
+
+        // then
+        assertFalse(newsRegistry.exists(1L));
+    }
+
+    @Test
+    void shouldForgetDeletedNews() {
+        // given
+        newsRegistry.created(1L);
+
+        // when
+        newsRegistry.deleted(1L);
+
+        // then
+        assertFalse(newsRegistry.exists(1L));
+        assertEquals(0, newsRegistry.size());
+    }
+
+    @Test
+    void shouldNotRestoreDeletedNewsByLateConfirmation() {
+        // given
+        newsRegistry.deleted(1L);
+
+        // when
+        newsRegistry.created(1L);
+
+        // then
+        assertFalse(newsRegistry.exists(1L));
+    }
+
+    @Test
+    void shouldNotTrackInvalidIds() {
+        // when
+        newsRegistry.created(null);
+        newsRegistry.created(0L);
+        newsRegistry.created(Integer.MAX_VALUE + 1L);
+
+        // then
+        assertFalse(newsRegistry.exists(null));
+        assertFalse(newsRegistry.exists(Integer.MAX_VALUE + 1L));
+        assertEquals(0, newsRegistry.size());
+    }
+
+}
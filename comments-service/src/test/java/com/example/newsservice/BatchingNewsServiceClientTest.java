@@ -0,0 +1,129 @@
+package com.example.newsservice;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link CachingNewsServiceClient} с включенным по умолчанию объединением
+ * промахов кэша в запросы POST /batch.
+ */
+@WireMockTest(httpPort = 8090)
+@SpringBootTest(classes = BatchingNewsServiceClientTest.Config.class,
+        properties = "news-service.url=http://localhost:8090")
+class BatchingNewsServiceClientTest {
+
+    private static final String NEWS_URL = "/api/v1/news/";
+    private static final String BATCH_URL = NEWS_URL + "batch";
+
+    @Autowired
+    private NewsServiceClient newsServiceClient;
+
+    @Autowired
+    private ResilientNewsServiceClient resilientNewsServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        ((CachingNewsServiceClient) newsServiceClient).evict(1L);
+        ((CachingNewsServiceClient) newsServiceClient).evict(2L);
+    }
+
+    @Test
+    void shouldLoadNewsByIdInBatch() {
+        // given
+        stubFor(post(urlEqualTo(BATCH_URL))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("news-batch.json")));
+
+        // when
+        NewsResponse first = newsServiceClient.getNewsById(1L);
+        NewsResponse second = newsServiceClient.getNewsById(1L);
+
+        // then
+        assertEquals(1L, first.getId());
+        assertEquals(first, second);
+        verify(1, postRequestedFor(urlEqualTo(BATCH_URL)).withRequestBody(equalToJson("[1]")));
+        verify(0, getRequestedFor(urlMatching(NEWS_URL + ".*")));
+    }
+
+    @Test
+    void shouldThrowAndCacheNotFoundWhenNewsIsMissingFromBatch() {
+        // given
+        stubFor(post(urlEqualTo(BATCH_URL))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[]")));
+
+        // when
+        assertThrows(FeignException.NotFound.class, () -> newsServiceClient.getNewsById(2L));
+        assertThrows(FeignException.NotFound.class, () -> newsServiceClient.getNewsById(2L));
+
+        // then
+        verify(1, postRequestedFor(urlEqualTo(BATCH_URL)));
+    }
+
+    @Test
+    void shouldServeLastKnownNewsWhenBatchFails() {
+        // given
+        stubFor(get(urlEqualTo(NEWS_URL + 1))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("news.json")));
+        stubFor(post(urlEqualTo(BATCH_URL))
+                .willReturn(aResponse().withStatus(500)));
+        resilientNewsServiceClient.getNewsById(1L);
+
+        // when
+        NewsResponse known = newsServiceClient.getNewsById(1L);
+
+        // then
+        assertEquals(1L, known.getId());
+        assertThrows(FeignException.InternalServerError.class, () -> newsServiceClient.getNewsById(2L));
+        verify(2, postRequestedFor(urlEqualTo(BATCH_URL)));
+    }
+
+    @Configuration
+    @EnableFeignClients(clients = NewsServiceClient.class)
+    @Import({CachingNewsServiceClient.class, ResilientNewsServiceClient.class})
+    @ImportAutoConfiguration({JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            FeignAutoConfiguration.class})
+    static class Config {
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+    }
+
+}
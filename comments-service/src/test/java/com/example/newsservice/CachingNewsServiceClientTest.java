@@ -0,0 +1,163 @@
+package com.example.newsservice;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@WireMockTest(httpPort = 8089)
+@SpringBootTest(classes = CachingNewsServiceClientTest.Config.class,
+        properties = {"news-service.url=http://localhost:8089", "news-service.batch.enabled=false"})
+class CachingNewsServiceClientTest {
+
+    private static final String NEWS_URL = "/api/v1/news/";
+
+    @Autowired
+    private NewsServiceClient newsServiceClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        ((CachingNewsServiceClient) newsServiceClient).evict(1L);
+        ((CachingNewsServiceClient) newsServiceClient).evict(2L);
+    }
+
+    @Test
+    void shouldServeRepeatedRequestFromCache() {
+        // given
+        stubFor(get(urlEqualTo(NEWS_URL + 1))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("news.json")));
+        double hits = hits("newsResponses");
+
+        // when
+        NewsResponse first = newsServiceClient.getNewsById(1L);
+        NewsResponse second = newsServiceClient.getNewsById(1L);
+
+        // then
+        assertEquals(1L, first.getId());
+        assertEquals(first, second);
+        verify(1, getRequestedFor(urlEqualTo(NEWS_URL + 1)));
+        assertEquals(hits + 1, hits("newsResponses"));
+    }
+
+    @Test
+    void shouldCacheNotFound() {
+        // given
+        stubFor(get(urlEqualTo(NEWS_URL + 2))
+                .willReturn(aResponse().withStatus(404)));
+
+        // when
+        assertThrows(FeignException.NotFound.class, () -> newsServiceClient.getNewsById(2L));
+        assertThrows(FeignException.NotFound.class, () -> newsServiceClient.getNewsById(2L));
+
+        // then
+        verify(1, getRequestedFor(urlEqualTo(NEWS_URL + 2)));
+    }
+
+    @Test
+    void shouldRequestNewsAgainAfterEvict() {
+        // given
+        stubFor(get(urlEqualTo(NEWS_URL + 1))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("news.json")));
+        newsServiceClient.getNewsById(1L);
+
+        // when
+        ((CachingNewsServiceClient) newsServiceClient).evict(1L);
+        newsServiceClient.getNewsById(1L);
+
+        // then
+        verify(2, getRequestedFor(urlEqualTo(NEWS_URL + 1)));
+    }
+
+    @Test
+    void shouldNotCacheServerError() {
+        // given
+        stubFor(get(urlEqualTo(NEWS_URL + 2))
+                .willReturn(aResponse().withStatus(500)));
+
+        // when
+        assertThrows(FeignException.class, () -> newsServiceClient.getNewsById(2L));
+        assertThrows(FeignException.class, () -> newsServiceClient.getNewsById(2L));
+
+        // then
+        verify(2, getRequestedFor(urlEqualTo(NEWS_URL + 2)));
+    }
+
+    @Test
+    void shouldSplitMissedIdsIntoBatchesOfMaxSize() {
+        // given
+        stubFor(post(urlEqualTo(NEWS_URL + "batch"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[]")));
+        List<Long> ids = LongStream.rangeClosed(1_000, 1_000 + 2L * NewsServiceClient.MAX_BATCH_SIZE)
+                .boxed()
+                .toList();
+
+        // when
+        List<NewsResponse> found = newsServiceClient.getNewsByIds(ids);
+
+        // then
+        assertTrue(found.isEmpty());
+        verify(3, postRequestedFor(urlEqualTo(NEWS_URL + "batch")));
+    }
+
+    private double hits(String cacheName) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", cacheName)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+
+    @Configuration
+    @EnableFeignClients(clients = NewsServiceClient.class)
+    @Import({CachingNewsServiceClient.class, ResilientNewsServiceClient.class})
+    @ImportAutoConfiguration({JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            FeignAutoConfiguration.class})
+    static class Config {
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+    }
+
+}
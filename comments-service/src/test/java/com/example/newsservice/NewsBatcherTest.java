@@ -0,0 +1,108 @@
+package com.example.newsservice;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NewsBatcherTest {
+
+    private final List<List<Long>> requests = new CopyOnWriteArrayList<>();
+
+    private NewsBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        batcher.close();
+    }
+
+    @Test
+    void shouldLoadConcurrentIdsInOneRequest() {
+        // given
+        batcher = new NewsBatcher(existing(1L, 2L), Duration.ofMillis(100), 10);
+
+        // when
+        CompletableFuture<NewsResponse> first = batcher.load(1L);
+        CompletableFuture<NewsResponse> second = batcher.load(2L);
+        CompletableFuture<NewsResponse> missing = batcher.load(3L);
+
+        // then
+        assertEquals(1L, first.join().getId());
+        assertEquals(2L, second.join().getId());
+        assertNull(missing.join());
+        assertEquals(1, requests.size());
+        assertEquals(3, requests.get(0).size());
+    }
+
+    @Test
+    void shouldShareResultOfSameId() {
+        // given
+        batcher = new NewsBatcher(existing(1L), Duration.ofMillis(50), 10);
+
+        // when
+        CompletableFuture<NewsResponse> first = batcher.load(1L);
+        CompletableFuture<NewsResponse> second = batcher.load(1L);
+
+        // then
+        assertSame(first, second);
+        assertEquals(1L, second.join().getId());
+        assertEquals(List.of(1L), requests.get(0));
+    }
+
+    @Test
+    void shouldSendFullBatchWithoutWaitingForWindow() {
+        // given
+        batcher = new NewsBatcher(existing(1L, 2L, 3L), Duration.ofHours(1), 2);
+
+        // when
+        CompletableFuture<NewsResponse> first = batcher.load(1L);
+        CompletableFuture<NewsResponse> second = batcher.load(2L);
+
+        // then
+        assertEquals(1L, first.join().getId());
+        assertEquals(2L, second.join().getId());
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void shouldFailAllIdsOfBatchWhenRequestFails() {
+        // given
+        batcher = new NewsBatcher(ids -> {
+            throw new IllegalStateException("news-service is down");
+        }, Duration.ofMillis(10), 10);
+
+        // when
+        CompletableFuture<NewsResponse> first = batcher.load(1L);
+        CompletableFuture<NewsResponse> second = batcher.load(2L);
+
+        // then
+        assertThrows(CompletionException.class, first::join);
+        assertThrows(CompletionException.class, second::join);
+    }
+
+    private Function<List<Long>, List<NewsResponse>> existing(Long... existingIds) {
+        List<Long> existing = List.of(existingIds);
+        return ids -> {
+            requests.add(List.copyOf(ids));
+            return ids.stream()
+                    .filter(existing::contains)
+                    .map(id -> {
+                        NewsResponse news = new NewsResponse();
+                        news.setId(id);
+                        return news;
+                    })
+                    .toList();
+        };
+    }
+
+}
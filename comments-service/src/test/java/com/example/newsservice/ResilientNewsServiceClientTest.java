@@ -0,0 +1,179 @@
+package com.example.newsservice;
+
+import com.example.exception.ServiceUnavailableException;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientNewsServiceClientTest {
+
+    private static final int WINDOW = 4;
+
+    @Mock
+    private NewsServiceClient delegate;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Test
+    void shouldServeLastKnownNewsWhenNewsServiceFails() {
+        // given
+        ResilientNewsServiceClient client = client(10);
+        NewsResponse news = news(1L);
+        when(delegate.getNewsById(1L))
+                .thenReturn(news)
+                .thenThrow(serverError());
+        client.getNewsById(1L);
+
+        // when
+        NewsResponse actual = client.getNewsById(1L);
+
+        // then
+        assertEquals(news, actual);
+    }
+
+    @Test
+    void shouldRethrowErrorWhenNoLastKnownNews() {
+        // given
+        ResilientNewsServiceClient client = client(10);
+        when(delegate.getNewsById(1L)).thenThrow(serverError());
+
+        // when, then
+        assertThrows(FeignException.InternalServerError.class, () -> client.getNewsById(1L));
+    }
+
+    @Test
+    void shouldRejectCallsWithoutRequestWhenCircuitIsOpen() {
+        // given
+        ResilientNewsServiceClient client = client(10);
+        when(delegate.getNewsById(1L)).thenThrow(serverError());
+        for (int i = 0; i < WINDOW; i++) {
+            assertThrows(FeignException.class, () -> client.getNewsById(1L));
+        }
+
+        // when, then
+        assertThrows(ServiceUnavailableException.class, () -> client.getNewsById(1L));
+        verify(delegate, times(WINDOW)).getNewsById(1L);
+    }
+
+    @Test
+    void shouldNotCountNotFoundAsFailure() {
+        // given
+        ResilientNewsServiceClient client = client(10);
+        when(delegate.getNewsById(1L)).thenThrow(notFound());
+        for (int i = 0; i < WINDOW; i++) {
+            assertThrows(FeignException.NotFound.class, () -> client.getNewsById(1L));
+        }
+
+        // when, then
+        assertThrows(FeignException.NotFound.class, () -> client.getNewsById(1L));
+        verify(delegate, times(WINDOW + 1)).getNewsById(1L);
+    }
+
+    @Test
+    void shouldRejectCallWhenBulkheadIsFull() throws Exception {
+        // given
+        ResilientNewsServiceClient client = client(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getNewsById(1L)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return news(1L);
+        });
+        CompletableFuture<NewsResponse> slow = CompletableFuture.supplyAsync(() -> client.getNewsById(1L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // when, then
+        assertThrows(ServiceUnavailableException.class, () -> client.getNewsById(2L));
+        release.countDown();
+        assertEquals(1L, slow.get(5, TimeUnit.SECONDS).getId());
+    }
+
+    @Test
+    void shouldServeBatchFromLastKnownNewsOnlyWhenAllIdsAreKnown() {
+        // given
+        ResilientNewsServiceClient client = client(10);
+        when(delegate.getNewsByIds(List.of(1L)))
+                .thenReturn(List.of(news(1L)))
+                .thenThrow(serverError());
+        when(delegate.getNewsByIds(List.of(1L, 2L))).thenThrow(serverError());
+        client.getNewsByIds(List.of(1L));
+
+        // when
+        List<NewsResponse> known = client.getNewsByIds(List.of(1L));
+
+        // then
+        assertEquals(List.of(news(1L)), known);
+        assertThrows(FeignException.InternalServerError.class, () -> client.getNewsByIds(List.of(1L, 2L)));
+    }
+
+    @Test
+    void shouldServeKnownIdsOfFailedBatchAndFailOnlyUnknownIds() throws Exception {
+        // given
+        ResilientNewsServiceClient client = client(10);
+        when(delegate.getNewsById(1L)).thenReturn(news(1L));
+        when(delegate.getNewsByIds(anyCollection())).thenThrow(serverError());
+        client.getNewsById(1L);
+
+        try (NewsBatcher batcher = new NewsBatcher(client::loadBatch, client::lastKnown, Duration.ofSeconds(1), 2, 1)) {
+            // when
+            CompletableFuture<NewsResponse> known = batcher.load(1L);
+            CompletableFuture<NewsResponse> unknown = batcher.load(2L);
+
+            // then
+            assertEquals(news(1L), known.get(5, TimeUnit.SECONDS));
+            ExecutionException error = assertThrows(ExecutionException.class, () -> unknown.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(FeignException.InternalServerError.class, error.getCause());
+            verify(delegate).getNewsByIds(anyCollection());
+        }
+    }
+
+    private ResilientNewsServiceClient client(int maxConcurrentCalls) {
+        return new ResilientNewsServiceClient(delegate, maxConcurrentCalls, 50, Duration.ofSeconds(1),
+                WINDOW, WINDOW, Duration.ofMinutes(1), 100, Duration.ofHours(1), meterRegistry);
+    }
+
+    private static NewsResponse news(Long id) {
+        NewsResponse news = new NewsResponse();
+        news.setId(id);
+        return news;
+    }
+
+    private static FeignException serverError() {
+        return new FeignException.InternalServerError("news-service failed", request(), null, Map.of());
+    }
+
+    private static FeignException notFound() {
+        return new FeignException.NotFound("news not found", request(), null, Map.of());
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.GET, "/api/v1/news/1", Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+}
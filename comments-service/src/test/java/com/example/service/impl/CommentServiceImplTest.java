@@ -6,6 +6,7 @@ import com.example.entity.Comment;
 import com.example.entity.dto.CommentDto;
 import com.example.exception.EntityNotFoundException;
 import com.example.mapper.CommentMapper;
+import com.example.news.NewsRegistry;
 import com.example.newsservice.NewsServiceClient;
 import com.example.repository.CommentRepository;
 import com.example.service.AuthorService;
@@ -49,6 +50,9 @@ class CommentServiceImplTest {
     @Mock
     private NewsServiceClient newsServiceClient;
 
+    @Mock
+    private NewsRegistry newsRegistry;
+
     @InjectMocks
     private CommentServiceImpl commentService;
 
@@ -163,6 +167,30 @@ class CommentServiceImplTest {
         verify(commentMapper).entityToDto(comment.get());
     }
 
+    @Test
+    void shouldGetCommentByIdWithoutNewsServiceCallWhenRegistryKnowsNews() {
+        // given
+        Long newsId = ConstantsForTest.NEWS_ID;
+        Long commentId = ConstantsForTest.COMMENT_ID;
+        Optional <Comment> comment = Optional.of(CommentTestData.builder().build().buildComment());
+        CommentDto expected = CommentTestData.builder().build().buildCommentDto();
+
+        when(newsRegistry.exists(newsId))
+                .thenReturn(true);
+        when(commentRepository.findById(commentId))
+                .thenReturn(comment);
+        when(commentMapper.entityToDto(comment.get()))
+                .thenReturn(expected);
+
+        //when
+        CommentDto actual = commentService.findById(newsId, commentId);
+
+        //then
+        assertEquals(expected, actual);
+        verify(newsServiceClient, never()).getNewsById(any());
+        verify(newsRegistry, never()).created(any());
+    }
+
     @Test
     void shouldNotGetCommentByIdAndThrowsCommentNotFoundException() {
         // given
@@ -94,6 +94,13 @@ public class GlobalExceptionHandler {
                 ex.getMessage(), new Date()));
     }
 
+    @ExceptionHandler(value= ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException ex){
+        log.error(HttpStatus.SERVICE_UNAVAILABLE + " " + ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(), new Date()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
         List<String> errorMessages = ex.getBindingResult().getFieldErrors()
@@ -0,0 +1,9 @@
+package com.example.exception;
+
+public class ServiceUnavailableException extends ApplicationException {
+
+    public ServiceUnavailableException(String serviceName) {
+        super(String.format("%s is unavailable, try again later", serviceName));
+    }
+
+}
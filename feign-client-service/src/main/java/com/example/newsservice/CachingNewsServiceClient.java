@@ -0,0 +1,198 @@
+package com.example.newsservice;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * {@link NewsServiceClient} с кэшем ответов news-service по newsId.
+ * Запросы в news-service идут через {@link ResilientNewsServiceClient}.
+ * <p>
+ * Найденная News хранится news-service.cache.ttl, ответ 404 -
+ * news-service.cache.negative-ttl: повторный запрос несуществующей News
+ * не уходит в news-service, а снова выбрасывает {@link FeignException.NotFound}.
+ * Остальные ошибки не кэшируются.
+ * <p>
+ * Если news-service.batch.enabled (по умолчанию true), промахи кэша
+ * {@link #getNewsById(Long)} из разных потоков за news-service.batch.window
+ * собираются в один запрос POST /batch, но не больше
+ * news-service.batch.max-size (не больше {@link #MAX_BATCH_SIZE}) id в запросе. News, которой нет в ответе,
+ * считается не найденной. Если запрос пакета не удался, каждый id
+ * отвечается из кэша последних ответов отдельно.
+ * <p>
+ * Метрики кэша - cache.gets (result=hit/miss), cache.size и др. с тегом
+ * cache=newsResponses и cache=newsNotFound. Время запросов к news-service
+ * пишет Feign (feign-micrometer).
+ */
+@Slf4j
+@Primary
+@Component
+public class CachingNewsServiceClient implements NewsServiceClient, DisposableBean {
+
+    private static final String CACHE_NAME = "newsResponses";
+    private static final String NOT_FOUND_CACHE_NAME = "newsNotFound";
+
+    private final ResilientNewsServiceClient delegate;
+    private final Cache<Long, NewsResponse> responses;
+    private final Cache<Long, FeignException.NotFound> notFound;
+    private final NewsBatcher batcher;
+
+    public CachingNewsServiceClient(ResilientNewsServiceClient delegate,
+                                    @Value("${news-service.cache.max-size:10000}") long maxSize,
+                                    @Value("${news-service.cache.ttl:30s}") Duration ttl,
+                                    @Value("${news-service.cache.negative-ttl:5s}") Duration negativeTtl,
+                                    @Value("${news-service.batch.enabled:true}") boolean batchEnabled,
+                                    @Value("${news-service.batch.window:2ms}") Duration batchWindow,
+                                    @Value("${news-service.batch.max-size:100}") int batchMaxSize,
+                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        this.delegate = delegate;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.notFound = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
+        this.batcher = batchEnabled
+                ? new NewsBatcher(delegate::loadBatch, delegate::lastKnown, batchWindow,
+                Math.min(batchMaxSize, MAX_BATCH_SIZE), delegate.maxConcurrentCalls())
+                : null;
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, responses, CACHE_NAME);
+            CaffeineCacheMetrics.monitor(registry, notFound, NOT_FOUND_CACHE_NAME);
+        });
+    }
+
+    @Override
+    public NewsResponse getNewsById(Long newsId) {
+        NewsResponse cached = responses.getIfPresent(newsId);
+        if (cached != null) {
+            return cached;
+        }
+        FeignException.NotFound missing = notFound.getIfPresent(newsId);
+        if (missing != null) {
+            throw copyOf(missing);
+        }
+        if (batcher != null) {
+            return loadInBatch(newsId);
+        }
+        try {
+            NewsResponse news = delegate.getNewsById(newsId);
+            if (news != null) {
+                responses.put(newsId, news);
+            }
+            return news;
+        } catch (FeignException.NotFound e) {
+            log.debug("News {} not found, cache the answer", newsId);
+            notFound.put(newsId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Возвращает найденные News по списку id. В news-service уходят
+     * только id, которых нет в кэше, частями не больше {@link #MAX_BATCH_SIZE}.
+     */
+    @Override
+    public List<NewsResponse> getNewsByIds(Collection<Long> ids) {
+        Map<Long, NewsResponse> cached = responses.getAllPresent(ids);
+        List<Long> missed = new ArrayList<>();
+        for (Long id : ids) {
+            if (!cached.containsKey(id) && notFound.getIfPresent(id) == null) {
+                missed.add(id);
+            }
+        }
+        List<NewsResponse> result = new ArrayList<>(cached.values());
+        for (int from = 0; from < missed.size(); from += MAX_BATCH_SIZE) {
+            List<Long> chunk = missed.subList(from, Math.min(missed.size(), from + MAX_BATCH_SIZE));
+            for (NewsResponse news : delegate.getNewsByIds(chunk)) {
+                responses.put(news.getId(), news);
+                result.add(news);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Удаляет ответ по News из кэша, например после ее удаления.
+     */
+    public void evict(Long newsId) {
+        responses.invalidate(newsId);
+        notFound.invalidate(newsId);
+        delegate.evict(newsId);
+    }
+
+    @Override
+    public void destroy() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    private NewsResponse loadInBatch(Long newsId) {
+        NewsResponse news;
+        try {
+            news = batcher.load(newsId).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        if (news == null) {
+            log.debug("News {} not found, cache the answer", newsId);
+            FeignException.NotFound missing = notFoundException(newsId);
+            notFound.put(newsId, missing);
+            throw copyOf(missing);
+        }
+        responses.put(newsId, news);
+        return news;
+    }
+
+    /**
+     * 404 для News, которой не оказалось в ответе на запрос пакета:
+     * вызывающий код обрабатывает его так же, как ответ на одиночный запрос.
+     */
+    private static FeignException.NotFound notFoundException(Long newsId) {
+        Request request = Request.create(Request.HttpMethod.GET, "/api/v1/news/" + newsId,
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        return new FeignException.NotFound("News with id " + newsId + " not found", request, null, Map.of());
+    }
+
+    /**
+     * Новое исключение для каждого ответа из кэша: исключение
+     * не передается между потоками и запросами.
+     */
+    private static FeignException.NotFound copyOf(FeignException.NotFound e) {
+        return new FeignException.NotFound(e.getMessage(), e.request(),
+                e.responseBody().map(CachingNewsServiceClient::toArray).orElse(null), e.responseHeaders());
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+}
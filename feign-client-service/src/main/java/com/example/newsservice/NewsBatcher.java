@@ -0,0 +1,168 @@
+package com.example.newsservice;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Объединяет одиночные запросы News, пришедшие из разных потоков в течение
+ * короткого окна, в один запрос списка id.
+ * <p>
+ * Первый id нового пакета запускает таймер окна. Пакет отправляется по
+ * истечении окна или сразу, когда в нем набралось maxBatchSize id.
+ * Повторные запросы одного id в пакете получают один и тот же результат.
+ * Если News не найдена - результат null. При ошибке запроса результат
+ * каждого id пакета определяет fallback отдельно, поэтому id, для которых
+ * есть запасной ответ, не получают ошибку из-за остальных id пакета.
+ * <p>
+ * Пакеты отправляются не больше чем maxConcurrentBatches потоками - столько
+ * запросов одновременно пропускает bulkhead news-service, остальные пакеты
+ * ждут в очереди. Каждый пакет в очереди ждут вызывающие потоки, поэтому
+ * очередь не растет быстрее, чем приходят запросы.
+ * <p>
+ * Пакет защищен {@link ReentrantLock}, а не synchronized: вызывающие потоки
+ * могут быть виртуальными.
+ */
+@Slf4j
+class NewsBatcher implements AutoCloseable {
+
+    private final Function<List<Long>, List<NewsResponse>> loader;
+    private final BiFunction<Long, RuntimeException, NewsResponse> fallback;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService executor;
+    private final Lock lock = new ReentrantLock();
+    private Map<Long, CompletableFuture<NewsResponse>> pending = new HashMap<>();
+
+    /**
+     * Создает пакетировщик, который отправляет пакеты по одному и при ошибке
+     * запроса передает ее всем ожидающим пакета.
+     */
+    NewsBatcher(Function<List<Long>, List<NewsResponse>> loader, Duration window, int maxBatchSize) {
+        this(loader, (id, e) -> {
+            throw e;
+        }, window, maxBatchSize, 1);
+    }
+
+    /**
+     * @param loader               загружает News по списку id
+     * @param fallback             результат id при ошибке запроса пакета, может выбросить исключение
+     * @param window               сколько ждать другие id после первого id пакета
+     * @param maxBatchSize         наибольшее количество id в одном запросе
+     * @param maxConcurrentBatches наибольшее количество пакетов, отправляемых одновременно
+     */
+    NewsBatcher(Function<List<Long>, List<NewsResponse>> loader,
+                BiFunction<Long, RuntimeException, NewsResponse> fallback, Duration window, int maxBatchSize,
+                int maxConcurrentBatches) {
+        this.loader = loader;
+        this.fallback = fallback;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("news-batch-timer"));
+        ThreadPoolExecutor senders = new ThreadPoolExecutor(maxConcurrentBatches, maxConcurrentBatches,
+                1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), daemonThreads("news-batch"));
+        senders.allowCoreThreadTimeOut(true);
+        this.executor = senders;
+    }
+
+    /**
+     * Добавляет id в текущий пакет.
+     *
+     * @return News или null, если она не найдена
+     */
+    CompletableFuture<NewsResponse> load(Long newsId) {
+        Map<Long, CompletableFuture<NewsResponse>> full = null;
+        CompletableFuture<NewsResponse> result;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                Map<Long, CompletableFuture<NewsResponse>> batch = pending;
+                timer.schedule(() -> flush(batch), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            result = pending.computeIfAbsent(newsId, id -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new HashMap<>();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full != null) {
+            Map<Long, CompletableFuture<NewsResponse>> batch = full;
+            executor.execute(() -> send(batch));
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        executor.shutdown();
+    }
+
+    /**
+     * Окно пакета истекло. Если пакет уже отправлен по размеру - ничего не делает.
+     */
+    private void flush(Map<Long, CompletableFuture<NewsResponse>> batch) {
+        lock.lock();
+        try {
+            if (pending != batch) {
+                return;
+            }
+            pending = new HashMap<>();
+        } finally {
+            lock.unlock();
+        }
+        executor.execute(() -> send(batch));
+    }
+
+    private void send(Map<Long, CompletableFuture<NewsResponse>> batch) {
+        List<Long> ids = new ArrayList<>(batch.keySet());
+        log.debug("Load {} news in one batch", ids.size());
+        try {
+            Map<Long, NewsResponse> found = new HashMap<>();
+            for (NewsResponse news : loader.apply(ids)) {
+                found.put(news.getId(), news);
+            }
+            batch.forEach((id, future) -> future.complete(found.get(id)));
+        } catch (RuntimeException e) {
+            batch.forEach((id, future) -> fallback(id, future, e));
+        }
+    }
+
+    private void fallback(Long id, CompletableFuture<NewsResponse> future, RuntimeException e) {
+        try {
+            future.complete(fallback.apply(id, e));
+        } catch (RuntimeException fallbackError) {
+            future.completeExceptionally(fallbackError);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
@@ -3,11 +3,36 @@ package com.example.newsservice;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "news-service", url = "http://localhost:8081", path = "/api/v1/news")
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Клиент news-service. Внедряется {@link CachingNewsServiceClient},
+ * сам Feign клиент доступен по квалификатору {@link #FEIGN_QUALIFIER}.
+ */
+@FeignClient(name = "news-service", url = "${news-service.url:http://localhost:8081}", path = "/api/v1/news",
+        configuration = NewsServiceClientConfiguration.class,
+        qualifiers = NewsServiceClient.FEIGN_QUALIFIER, primary = false)
 public interface NewsServiceClient {
 
+    String FEIGN_QUALIFIER = "newsServiceFeignClient";
+
+    /**
+     * Наибольшее количество id в одном запросе {@link #getNewsByIds(Collection)},
+     * больше news-service не принимает.
+     */
+    int MAX_BATCH_SIZE = 500;
+
     @GetMapping(path = "/{newsId}")
     NewsResponse getNewsById(@PathVariable("newsId") Long newsId);
 
+    /**
+     * Возвращает найденные News по списку id, несуществующие пропускаются.
+     */
+    @PostMapping(path = "/batch")
+    List<NewsResponse> getNewsByIds(@RequestBody Collection<Long> ids);
+
 }
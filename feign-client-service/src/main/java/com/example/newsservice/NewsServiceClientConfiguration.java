@@ -0,0 +1,44 @@
+package com.example.newsservice;
+
+import feign.Client;
+import feign.Request;
+import feign.http2client.Http2Client;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Настройки Feign клиента news-service. Не помечена @Configuration:
+ * применяется только к {@link NewsServiceClient}.
+ * <p>
+ * Вместо HttpURLConnection используется {@link HttpClient} JDK: он держит
+ * пул соединений и по возможности работает по HTTP/2 (один поток
+ * запросов на соединение), иначе по HTTP/1.1 с keep-alive.
+ */
+public class NewsServiceClientConfiguration {
+
+    @Value("${news-service.connect-timeout:1s}")
+    private Duration connectTimeout;
+
+    @Value("${news-service.read-timeout:2s}")
+    private Duration readTimeout;
+
+    @Bean
+    public Client newsServiceHttpClient() {
+        return new Http2Client(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build());
+    }
+
+    @Bean
+    public Request.Options newsServiceRequestOptions() {
+        return new Request.Options(connectTimeout.toMillis(), TimeUnit.MILLISECONDS,
+                readTimeout.toMillis(), TimeUnit.MILLISECONDS, false);
+    }
+
+}
@@ -0,0 +1,215 @@
+package com.example.newsservice;
+
+import com.example.exception.ServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * {@link NewsServiceClient}, который не дает медленному news-service
+ * занять все потоки запросов comments-service.
+ * <p>
+ * Bulkhead пропускает в news-service не больше
+ * news-service.bulkhead.max-concurrent-calls запросов одновременно и не
+ * ждет свободного места: лишний запрос сразу получает отказ. Circuit
+ * breaker размыкается, когда в окне news-service.circuit-breaker.sliding-window-size
+ * запросов доля ошибок (5xx, таймауты, недоступность) или медленных
+ * ответов достигает порога, и news-service.circuit-breaker.wait-in-open-state
+ * не пропускает запросы. Ответы 4xx ошибками не считаются.
+ * <p>
+ * При отказе News берется из кэша последних успешных ответов
+ * (news-service.cache.last-known-good-ttl). Если там ее нет - выбрасывается
+ * {@link ServiceUnavailableException} (503), а ошибка news-service
+ * передается как есть.
+ * <p>
+ * Состояние breaker и bulkhead - метрики resilience4j.circuitbreaker.*
+ * и resilience4j.bulkhead.* с тегом name=news-service в /actuator/metrics.
+ */
+@Slf4j
+@Component
+public class ResilientNewsServiceClient implements NewsServiceClient {
+
+    static final String NAME = "news-service";
+    private static final String LAST_KNOWN_GOOD_CACHE_NAME = "newsLastKnownGood";
+
+    private final NewsServiceClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Cache<Long, NewsResponse> lastKnownGood;
+
+    public ResilientNewsServiceClient(@Qualifier(FEIGN_QUALIFIER) NewsServiceClient delegate,
+                                      @Value("${news-service.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+                                      @Value("${news-service.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                                      @Value("${news-service.circuit-breaker.slow-call-duration:1s}") Duration slowCallDuration,
+                                      @Value("${news-service.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                                      @Value("${news-service.circuit-breaker.minimum-number-of-calls:10}") int minimumNumberOfCalls,
+                                      @Value("${news-service.circuit-breaker.wait-in-open-state:10s}") Duration waitInOpenState,
+                                      @Value("${news-service.cache.max-size:10000}") long maxSize,
+                                      @Value("${news-service.cache.last-known-good-ttl:1h}") Duration lastKnownGoodTtl,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        this.delegate = delegate;
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitInOpenState)
+                .recordException(ResilientNewsServiceClient::isFailure)
+                .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        this.circuitBreaker = circuitBreakers.circuitBreaker(NAME);
+        this.bulkhead = bulkheads.bulkhead(NAME);
+        this.lastKnownGood = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(lastKnownGoodTtl)
+                .recordStats()
+                .build();
+        circuitBreaker.getEventPublisher()
+                .onStateTransition(event -> log.warn("News service circuit breaker: {}", event.getStateTransition()));
+        meterRegistry.ifAvailable(registry -> {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(registry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(registry);
+            CaffeineCacheMetrics.monitor(registry, lastKnownGood, LAST_KNOWN_GOOD_CACHE_NAME);
+        });
+    }
+
+    @Override
+    public NewsResponse getNewsById(Long newsId) {
+        try {
+            NewsResponse news = call(() -> delegate.getNewsById(newsId));
+            if (news != null) {
+                lastKnownGood.put(newsId, news);
+            }
+            return news;
+        } catch (FeignException.NotFound e) {
+            lastKnownGood.invalidate(newsId);
+            throw e;
+        } catch (RuntimeException e) {
+            return lastKnown(newsId, e);
+        }
+    }
+
+    /**
+     * При отказе отвечает из кэша, только если в нем есть все id:
+     * отсутствие News в ответе означает, что ее не существует.
+     * Одиночные запросы, объединенные {@link NewsBatcher}, используют
+     * {@link #loadBatch(Collection)} и получают ответ из кэша по отдельности.
+     */
+    @Override
+    public List<NewsResponse> getNewsByIds(Collection<Long> ids) {
+        try {
+            return loadBatch(ids);
+        } catch (RuntimeException e) {
+            if (!isFailure(e)) {
+                throw e;
+            }
+            List<NewsResponse> cached = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                NewsResponse news = lastKnownGood.getIfPresent(id);
+                if (news == null) {
+                    throw unavailable(e);
+                }
+                cached.add(news);
+            }
+            log.warn("News service failed ({}), serve {} last known news", e.getMessage(), cached.size());
+            return cached;
+        }
+    }
+
+    /**
+     * Возвращает, сколько запросов одновременно пропускает bulkhead.
+     */
+    int maxConcurrentCalls() {
+        return bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+    }
+
+    /**
+     * Загружает News по списку id без ответа из кэша при отказе.
+     * Для {@link NewsBatcher}: при отказе каждый id пакета отвечается
+     * отдельно через {@link #lastKnown(Long, RuntimeException)}.
+     */
+    List<NewsResponse> loadBatch(Collection<Long> ids) {
+        List<NewsResponse> found = call(() -> delegate.getNewsByIds(ids));
+        lastKnownGood.invalidateAll(ids);
+        for (NewsResponse news : found) {
+            lastKnownGood.put(news.getId(), news);
+        }
+        return found;
+    }
+
+    /**
+     * Ответ на запрос одной News, завершившийся ошибкой e.
+     *
+     * @return последняя успешно полученная News
+     * @throws RuntimeException e, если это ошибка клиента (4xx) или News нет в кэше,
+     *                          {@link ServiceUnavailableException}, если запрос не был отправлен
+     */
+    NewsResponse lastKnown(Long newsId, RuntimeException e) {
+        if (!isFailure(e)) {
+            throw e;
+        }
+        NewsResponse news = lastKnownGood.getIfPresent(newsId);
+        if (news == null) {
+            throw unavailable(e);
+        }
+        log.warn("News service failed ({}), serve last known news {}", e.getMessage(), newsId);
+        return news;
+    }
+
+    /**
+     * Удаляет News из кэша последних ответов, например после ее удаления.
+     */
+    public void evict(Long newsId) {
+        lastKnownGood.invalidate(newsId);
+    }
+
+    private <T> T call(Supplier<T> request) {
+        return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, request)).get();
+    }
+
+    /**
+     * Отказ без запроса к news-service становится 503,
+     * ошибка самого news-service не меняется.
+     */
+    private static RuntimeException unavailable(RuntimeException e) {
+        if (e instanceof CallNotPermittedException || e instanceof BulkheadFullException) {
+            return new ServiceUnavailableException(NAME);
+        }
+        return e;
+    }
+
+    /**
+     * Ошибка клиента (4xx) не говорит о проблемах news-service.
+     */
+    private static boolean isFailure(Throwable e) {
+        return !(e instanceof FeignException feign) || feign.status() < 400 || feign.status() >= 500;
+    }
+
+}
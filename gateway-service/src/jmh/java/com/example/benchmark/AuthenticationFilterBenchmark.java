@@ -0,0 +1,80 @@
+package com.example.benchmark;
+
+import com.example.filter.AuthenticationFilter;
+import com.example.filter.RouteValidator;
+import com.example.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время CPU фильтра {@link AuthenticationFilter} на один запрос с JWT.
+ * <p>
+ * cache=on - токен уже проверен и берется из кэша, как у повторных
+ * запросов одного пользователя. cache=off - полная проверка подписи
+ * на каждый запрос (token.cache.max-size=0).
+ * Нагрузка на CPU при 50 000 запросов в секунду = среднее время × 50 000:
+ * 20 мкс/запрос - одно ядро целиком, 1 мкс/запрос - 5% ядра.
+ * <p>
+ * Запуск: gradle :gateway-service:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationFilterBenchmark {
+
+    private static final String SIGNING_KEY = "413F4428472B4B6250655368566D5970337336763979244226452948404D6351";
+    private static final GatewayFilterChain CHAIN = exchange -> Mono.empty();
+
+    @Param({"on", "off"})
+    private String cache;
+
+    private GatewayFilter filter;
+    private MockServerWebExchange exchange;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(SIGNING_KEY, "on".equals(cache) ? 100_000 : 0);
+        filter = new AuthenticationFilter(new RouteValidator(), jwtUtil).apply(new AuthenticationFilter.Config());
+        String token = Jwts.builder()
+                .setSubject("francesca@gmail.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .claim("roles", List.of("SUBSCRIBER"))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY)), SignatureAlgorithm.HS256)
+                .compact();
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/news/1/comments")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    @Benchmark
+    public Mono<Void> filter() {
+        return filter.filter(exchange, CHAIN);
+    }
+
+}
@@ -1,7 +1,8 @@
 package com.example.filter;
+import com.example.identity.IdentityHeader;
 import com.example.util.JwtUtil;
 import lombok.Data;
-import org.springframework.beans.factory.annotation.Autowired;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
@@ -11,42 +12,62 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+@Slf4j
 @Component
 public class AuthenticationFilter extends AbstractGatewayFilterFactory<AuthenticationFilter.Config>{
 
-    @Autowired
-    private RouteValidator validator;
+    private final RouteValidator validator;
 
-    @Autowired
-    private JwtUtil jwtUtil;
+    private final JwtUtil jwtUtil;
 
-    public AuthenticationFilter() {
+    public AuthenticationFilter(RouteValidator validator, JwtUtil jwtUtil) {
         super(Config.class);
+        this.validator = validator;
+        this.jwtUtil = jwtUtil;
     }
 
     @Override
     public GatewayFilter apply(Config config) {
         return ((exchange, chain) -> {
-            System.out.println("First pre filter" + exchange.getRequest());
+            log.debug("First pre filter {}", exchange.getRequest().getPath());
+            String identity = null;
             if (validator.isSecured.test(exchange.getRequest())) {
-                if (!exchange.getRequest().getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+                String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+                if (authHeader == null) {
                     throw new RuntimeException("missing authorization header");
                 }
-                String authHeader = exchange.getRequest().getHeaders().get(HttpHeaders.AUTHORIZATION).get(0);
-                if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                if (authHeader.startsWith("Bearer ")) {
                     authHeader = authHeader.substring(7);
                 }
                 try {
-                    jwtUtil.validateToken(authHeader);
+                    identity = jwtUtil.validateToken(authHeader);
                 } catch (Exception e) {
-                    System.out.println("invalid access...!");
+                    log.debug("invalid access...!");
                     throw new RuntimeException("un authorized access to application");
                 }
             }
-            return chain.filter(exchange);
+            return chain.filter(withIdentity(exchange, identity));
         });
     }
 
+    /**
+     * Заменяет заголовок {@link IdentityHeader#NAME} на подписанный gateway:
+     * пришедший от клиента заголовок удаляется всегда.
+     */
+    private static ServerWebExchange withIdentity(ServerWebExchange exchange, String identity) {
+        if (identity == null && !exchange.getRequest().getHeaders().containsKey(IdentityHeader.NAME)) {
+            return exchange;
+        }
+        return exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    headers.remove(IdentityHeader.NAME);
+                    if (identity != null) {
+                        headers.set(IdentityHeader.NAME, identity);
+                    }
+                }))
+                .build();
+    }
+
     @Data
     public static class Config {
     }
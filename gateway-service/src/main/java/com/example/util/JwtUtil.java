@@ -1,24 +1,129 @@
 package com.example.util;
+import com.example.authorization.Role;
+import com.example.identity.IdentityHeader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.nio.ByteBuffer;
 import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Проверяет JWT, пришедшие в gateway.
+ * <p>
+ * Ключ подписи и парсер создаются один раз при старте. Проверенные токены
+ * запоминаются в ограниченном кэше (token.cache.max-size, 0 - без кэша) до
+ * своего exp: повторный запрос с тем же токеном считает только SHA-256 от
+ * него, без разбора, проверки подписи и JSON. Ключ кэша - хэш токена,
+ * сами токены в памяти не хранятся. Токены без exp не кэшируются.
+ * <p>
+ * Для проверенного токена создается заголовок {@link IdentityHeader}
+ * с пользователем, ролями и хэшем токена - он кэшируется вместе с токеном.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${token.signing.key}")
-    private String jwtSigningKey;
+    private final JwtParser parser;
+    private final IdentityHeader identityHeader;
+    private final Cache<TokenHash, VerifiedToken> verified;
 
-    public void validateToken(final String token) {
-        Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token);
+    public JwtUtil(@Value("${token.signing.key}") String jwtSigningKey,
+                   @Value("${token.cache.max-size:100000}") long maxSize) {
+        this.parser = Jwts.parserBuilder().setSigningKey(getSignKey(jwtSigningKey)).build();
+        this.identityHeader = IdentityHeader.fromTokenSigningKey(jwtSigningKey);
+        this.verified = maxSize > 0
+                ? Caffeine.newBuilder().maximumSize(maxSize).expireAfter(new UntilExpiration()).build()
+                : null;
     }
 
-    private Key getSignKey() {
+    /**
+     * @return значение заголовка {@link IdentityHeader#NAME} или null, если у токена нет exp
+     * @throws io.jsonwebtoken.JwtException если токен неверный или истек
+     */
+    public String validateToken(final String token) {
+        byte[] tokenHash = IdentityHeader.tokenHash(token);
+        if (verified == null) {
+            return verify(token, tokenHash).identity();
+        }
+        TokenHash hash = TokenHash.of(tokenHash);
+        VerifiedToken cached = verified.getIfPresent(hash);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.identity();
+        }
+        VerifiedToken verifiedToken = verify(token, tokenHash);
+        if (verifiedToken.identity() != null) {
+            verified.put(hash, verifiedToken);
+        }
+        return verifiedToken.identity();
+    }
+
+    private VerifiedToken verify(String token, byte[] tokenHash) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return new VerifiedToken(null, 0);
+        }
+        List<?> roles = claims.get("roles", List.class);
+        String identity = identityHeader.sign(tokenHash, claims.getSubject(), roles == null ? 0 : Role.maskOf(roles),
+                TimeUnit.MILLISECONDS.toSeconds(expiration.getTime()));
+        return new VerifiedToken(identity, expiration.getTime());
+    }
+
+    private static Key getSignKey(String jwtSigningKey) {
         byte[] keyBytes = Decoders.BASE64.decode(jwtSigningKey);
         return Keys.hmacShaKeyFor(keyBytes);
     }
+
+    /**
+     * SHA-256 токена.
+     */
+    private record TokenHash(long first, long second, long third, long fourth) {
+
+        static TokenHash of(byte[] sha256) {
+            ByteBuffer digest = ByteBuffer.wrap(sha256);
+            return new TokenHash(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+
+    }
+
+    /**
+     * Проверенный токен.
+     *
+     * @param identity  заголовок {@link IdentityHeader#NAME}
+     * @param expiresAt exp токена в миллисекундах
+     */
+    private record VerifiedToken(String identity, long expiresAt) {
+    }
+
+    /**
+     * Запись живет до exp токена.
+     */
+    private static class UntilExpiration implements Expiry<TokenHash, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(TokenHash key, VerifiedToken token, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenHash key, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenHash key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
 }
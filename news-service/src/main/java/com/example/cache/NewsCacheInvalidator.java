@@ -0,0 +1,72 @@
+package com.example.cache;
+
+import com.example.util.ConstantsNews;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import static com.example.util.TransactionCallbacks.afterCommit;
+
+/**
+ * Сбрасывает производные представления новостей (списки, собранные
+ * из нескольких новостей) при их создании, изменении и удалении.
+ * <p>
+ * Лента новостей ({@link NewsFeedCache}) сбрасывается переходом
+ * на следующее поколение.
+ * <p>
+ * Записи кэшей news и newsOwner по id здесь не трогаются: созданная
+ * новость их не меняет, а изменение и удаление обрабатываются
+ * аннотациями по ключу.
+ * <p>
+ * Внутри транзакции сброс откладывается до ее фиксации, иначе
+ * параллельный запрос успел бы заново закэшировать старый список.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NewsCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final NewsFeedCache newsFeedCache;
+
+    /**
+     * Новость создана, изменена или удалена - устарели список новостей
+     * ее журналиста и лента новостей.
+     */
+    public void newsChanged(Long journalistId) {
+        afterCommit(() -> {
+            evict(ConstantsNews.NEWS_BY_JOURNALIST_CACHE, journalistId);
+            newsFeedCache.nextGeneration();
+        });
+    }
+
+    /**
+     * Журналист изменен или удален - устарели список его новостей,
+     * лента, в которой есть его имя, и владельцы его новостей: email
+     * мог измениться, а по id журналиста записи newsOwner не найти,
+     * поэтому этот кэш очищается целиком.
+     */
+    public void journalistChanged(Long journalistId) {
+        newsChanged(journalistId);
+        afterCommit(() -> clear(ConstantsNews.NEWS_OWNER_CACHE));
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            log.debug("Clear cache {}", cacheName);
+            cache.clear();
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            log.debug("Evict {} from cache {}", key, cacheName);
+            cache.evict(key);
+        }
+    }
+
+}
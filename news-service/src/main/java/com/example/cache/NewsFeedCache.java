@@ -0,0 +1,173 @@
+package com.example.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш ленты новостей (GET /api/v1/news) - страниц, уже сериализованных в JSON.
+ * <p>
+ * Ключ - параметры страницы и поколение новостей. Поколение - счетчик
+ * в Redis, общий для всех реплик: любое изменение новостей увеличивает его
+ * ({@link #nextGeneration()}) и рассылает новое значение через Redis pub/sub.
+ * Старые страницы не ищутся и не удаляются - к ним больше не обращаются,
+ * и они вытесняются по объему или времени жизни. Поколение читается до
+ * загрузки страницы, поэтому страница, загруженная параллельно с изменением,
+ * попадет только под старое поколение.
+ * <p>
+ * Кэшируются только первые страницы - их запрашивают чаще всего,
+ * остальные загружаются и сериализуются на каждый запрос. Размер страницы
+ * задает клиент, поэтому кэш ограничен суммарным объемом JSON страниц,
+ * а не их количеством.
+ */
+@Slf4j
+@Component
+public class NewsFeedCache implements MessageListener {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String generationKey;
+    private final String channel;
+    private final int maxCachedPage;
+    private final AsyncCache<FeedKey, byte[]> pages;
+    private final AtomicLong generation = new AtomicLong();
+
+    public NewsFeedCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                         @Value("${cache.feed.generation-key:news-service:news-generation}") String generationKey,
+                         @Value("${cache.feed.channel:news-service:news-generation}") String channel,
+                         @Value("${cache.feed.max-cached-page:4}") int maxCachedPage,
+                         @Value("${cache.feed.max-bytes:16MB}") DataSize maxBytes,
+                         @Value("${cache.feed.ttl:60s}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.generationKey = generationKey;
+        this.channel = channel;
+        this.maxCachedPage = maxCachedPage;
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxBytes.toBytes())
+                .weigher((FeedKey key, byte[] page) -> page.length)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    /**
+     * Читает текущее поколение из Redis при старте реплики.
+     */
+    @PostConstruct
+    public void loadGeneration() {
+        try {
+            String value = redisTemplate.opsForValue().get(generationKey);
+            if (value != null) {
+                advanceTo(Long.parseLong(value));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to read news generation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Возвращает страницу ленты в виде JSON. Первые страницы берутся
+     * из кэша текущего поколения, при промахе загружаются один раз.
+     * Страницу загружает вызывающий поток без блокировок кэша,
+     * параллельные запросы той же страницы ждут ее future.
+     *
+     * @param loader загружает страницу из базы
+     */
+    public byte[] getPage(int page, int size, String orderBy, String direction, Supplier<?> loader) {
+        if (page > maxCachedPage) {
+            return serialize(loader.get());
+        }
+        FeedKey key = new FeedKey(generation.get(), page, size, orderBy, direction);
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> cached = pages.asMap().putIfAbsent(key, future);
+        if (cached != null) {
+            try {
+                return cached.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        log.debug("Load news feed page {}", key);
+        try {
+            byte[] page = serialize(loader.get());
+            future.complete(page);
+            return page;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Новости изменились - увеличивает поколение, закэшированные
+     * страницы всех реплик перестают использоваться.
+     */
+    public void nextGeneration() {
+        try {
+            Long value = redisTemplate.opsForValue().increment(generationKey);
+            if (value != null) {
+                generation.accumulateAndGet(value, (current, next) -> Math.max(current + 1, next));
+                redisTemplate.convertAndSend(channel, String.valueOf(value));
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to increment news generation: {}", e.getMessage());
+        }
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Получает новое поколение от другой реплики.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            advanceTo(Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid news generation message: {}", e.getMessage());
+        }
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    private void advanceTo(long value) {
+        long previous = generation.getAndAccumulate(value, Math::max);
+        if (value > previous) {
+            log.debug("News generation {} -> {}", previous, value);
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize news feed", e);
+        }
+    }
+
+    private record FeedKey(long generation, int page, int size, String orderBy, String direction) {
+    }
+
+}
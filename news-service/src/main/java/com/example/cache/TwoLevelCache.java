@@ -0,0 +1,260 @@
+package com.example.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Кэш из двух уровней: ограниченный кэш в памяти процесса (L1)
+ * перед общим для всех реплик кэшем в Redis (L2).
+ * <p>
+ * Чтение идет сначала в L1, при промахе - в Redis, найденное значение
+ * запоминается в L1. Изменения (put, evict, clear) пишутся в Redis,
+ * применяются к L1 и рассылаются остальным репликам, чтобы те удалили
+ * у себя устаревшие записи L1.
+ * <p>
+ * Загрузка через {@link #get(Object, Callable)} (для {@code @Cacheable(sync = true)})
+ * не рассылается: значение в Redis от нее не меняется. Одновременные
+ * загрузки одного ключа в процессе объединяются: значение загружает первый
+ * поток, остальные ждут его результат. Загрузка не идет через
+ * {@code RedisCache.get(key, valueLoader)}: там один synchronized на весь кэш,
+ * он выстраивает в очередь загрузки разных ключей и закрепляет
+ * виртуальный поток за потоком-носителем на время запроса к базе.
+ * <p>
+ * Считает попадания в L1, попадания в Redis, промахи, сохранения
+ * и удаления - для метрик кэша ({@link TwoLevelCacheMeterBinder}).
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local;
+    private final Cache remote;
+    private final BiConsumer<String, String> invalidationPublisher;
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final ConcurrentMap<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * @param invalidationPublisher рассылает имя кэша и ключ измененной
+     *                              записи, ключ null - кэш очищен целиком
+     */
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local,
+                         Cache remote, BiConsumer<String, String> invalidationPublisher) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper value = local.getIfPresent(localKey);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+        value = remote.get(key);
+        if (value != null) {
+            remoteHits.increment();
+            local.put(localKey, value);
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        ValueWrapper wrapper = local.getIfPresent(localKey);
+        if (wrapper != null) {
+            localHits.increment();
+            return (T) wrapper.get();
+        }
+        wrapper = remote.get(key);
+        if (wrapper != null) {
+            remoteHits.increment();
+            local.put(localKey, wrapper);
+            return (T) wrapper.get();
+        }
+        misses.increment();
+        return load(key, localKey, valueLoader);
+    }
+
+    /**
+     * Загружает значение ключа один раз на процесс и сохраняет его в Redis и L1.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T load(Object key, String localKey, Callable<T> valueLoader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inProgress = loading.putIfAbsent(localKey, future);
+        if (inProgress != null) {
+            try {
+                return (T) inProgress.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            ValueWrapper wrapper = remote.get(key);
+            T value;
+            if (wrapper != null) {
+                value = (T) wrapper.get();
+            } else {
+                value = valueLoader.call();
+                remote.put(key, value);
+            }
+            local.put(localKey, new SimpleValueWrapper(value));
+            future.complete(value);
+            return value;
+        } catch (Exception e) {
+            ValueRetrievalException failure = new ValueRetrievalException(key, valueLoader, e);
+            future.completeExceptionally(failure);
+            throw failure;
+        } finally {
+            loading.remove(localKey, future);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        puts.increment();
+        String localKey = localKey(key);
+        local.put(localKey, new SimpleValueWrapper(value));
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        String localKey = localKey(key);
+        if (existing != null) {
+            local.put(localKey, existing);
+        } else {
+            puts.increment();
+            local.put(localKey, new SimpleValueWrapper(value));
+            invalidationPublisher.accept(name, localKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictions.increment();
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        if (evicted) {
+            evictions.increment();
+        }
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        invalidationPublisher.accept(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.accept(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        local.invalidateAll();
+        invalidationPublisher.accept(name, null);
+        return invalidated;
+    }
+
+    /**
+     * Возвращает количество записей L1.
+     */
+    public long localSize() {
+        return local.estimatedSize();
+    }
+
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Удаляет запись только из L1, по сообщению от другой реплики.
+     */
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    /**
+     * Очищает только L1, по сообщению от другой реплики.
+     */
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    /**
+     * Ключ L1 - строковое представление ключа, как и в ключе Redis,
+     * чтобы другие реплики могли удалить запись по ключу из сообщения.
+     */
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.example.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Оборачивает каждый кэш Redis в {@link TwoLevelCache} и синхронизирует
+ * L1 разных реплик через канал Redis pub/sub.
+ * <p>
+ * Сообщение - строки "id реплики, имя кэша[, ключ]", без ключа - кэш
+ * очищен целиком. Свои сообщения реплика пропускает. L1 ограничен по
+ * количеству записей и времени жизни: если сообщение потеряно (например,
+ * при переподключении к Redis), устаревшая запись живет не дольше ttl.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private static final String SEPARATOR = "\n";
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long maxSize;
+    private final Duration ttl;
+    private final String nodeId;
+    private final Map<String, TwoLevelCache> caches;
+
+    /**
+     * @param remoteCacheManager кэши Redis (L2)
+     * @param channel            канал для рассылки изменений
+     * @param maxSize            наибольшее количество записей L1 в каждом кэше
+     * @param ttl                время жизни записи L1 после сохранения
+     */
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, StringRedisTemplate redisTemplate,
+                                String channel, long maxSize, Duration ttl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.nodeId = UUID.randomUUID().toString();
+        this.caches = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        return cache != null ? cache : caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * Получает изменение от другой реплики и удаляет запись из своего L1.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+        if (parts.length < 2 || parts[0].equals(nodeId)) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts.length == 2) {
+            log.debug("Clear near cache {} by message from {}", parts[1], parts[0]);
+            cache.clearLocal();
+        } else {
+            log.debug("Evict key {} from near cache {} by message from {}", parts[2], parts[1], parts[0]);
+            cache.evictLocal(parts[2]);
+        }
+    }
+
+    /**
+     * Создает кэши заранее: метрики привязываются только к кэшам,
+     * которые уже есть при старте приложения.
+     */
+    public void initializeCaches(Collection<String> cacheNames) {
+        cacheNames.forEach(this::getCache);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return new TwoLevelCache(name,
+                Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build(),
+                remote, this::publish);
+    }
+
+    private void publish(String cacheName, String key) {
+        String message = key == null
+                ? nodeId + SEPARATOR + cacheName
+                : nodeId + SEPARATOR + cacheName + SEPARATOR + key;
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish invalidation of {} in cache {}: {}", key, cacheName, e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Метрики {@link TwoLevelCache} с тегом cache=имя кэша: общие для кэшей
+ * cache.gets (result=hit/miss), cache.puts, cache.evictions, cache.size
+ * (размер L1) и cache.near.gets - попадания по уровням (level=local/remote).
+ * Доля попаданий кэша - hit / (hit + miss) из cache.gets.
+ */
+public class TwoLevelCacheMeterBinder extends CacheMeterBinder<TwoLevelCache> {
+
+    public TwoLevelCacheMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? null : cache.localSize();
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? 0L : cache.getLocalHits() + cache.getRemoteHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? null : cache.getMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? null : cache.getEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? 0L : cache.getPuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoLevelCache cache = getCache();
+        FunctionCounter.builder("cache.near.gets", cache, TwoLevelCache::getLocalHits)
+                .tags(getTagsWithCacheName())
+                .tag("level", "local")
+                .description("The number of times cache lookup methods found a value in the in-process cache")
+                .register(registry);
+        FunctionCounter.builder("cache.near.gets", cache, TwoLevelCache::getRemoteHits)
+                .tags(getTagsWithCacheName())
+                .tag("level", "remote")
+                .description("The number of times cache lookup methods found a value in Redis")
+                .register(registry);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.example.config;
+
+import com.example.cache.NewsFeedCache;
+import com.example.cache.TwoLevelCache;
+import com.example.cache.TwoLevelCacheManager;
+import com.example.cache.TwoLevelCacheMeterBinder;
+import com.example.util.ConstantsNews;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Кэши сервиса: L1 в памяти процесса перед Redis (L2),
+ * изменения рассылаются остальным репликам через Redis pub/sub.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Value("${cache.near.max-size:10000}")
+    private long nearCacheMaxSize;
+
+    @Value("${cache.near.ttl:60s}")
+    private Duration nearCacheTtl;
+
+    @Value("${cache.near.channel:news-service:cache-invalidation}")
+    private String nearCacheChannel;
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                             StringRedisTemplate redisTemplate,
+                                             CacheProperties cacheProperties) {
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
+                .cacheDefaults(redisCacheConfiguration(cacheProperties.getRedis()))
+                .build();
+        redisCacheManager.afterPropertiesSet();
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisCacheManager, redisTemplate,
+                nearCacheChannel, nearCacheMaxSize, nearCacheTtl);
+        cacheManager.initializeCaches(List.of(ConstantsNews.NEWS_CACHE,
+                ConstantsNews.JOURNALISTS_CACHE, ConstantsNews.NEWS_BY_JOURNALIST_CACHE,
+                ConstantsNews.NEWS_OWNER_CACHE));
+        return cacheManager;
+    }
+
+    /**
+     * Метрики попаданий и промахов по каждому кэшу (тег cache).
+     */
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return TwoLevelCacheMeterBinder::new;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory redisConnectionFactory, TwoLevelCacheManager cacheManager,
+            NewsFeedCache newsFeedCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(cacheManager.getChannel()));
+        container.addMessageListener(newsFeedCache, new ChannelTopic(newsFeedCache.getChannel()));
+        return container;
+    }
+
+    /**
+     * Настройки Redis кэша из spring.cache.redis, как в автоконфигурации Spring Boot.
+     */
+    private static RedisCacheConfiguration redisCacheConfiguration(CacheProperties.Redis properties) {
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig();
+        if (properties.getTimeToLive() != null) {
+            configuration = configuration.entryTtl(properties.getTimeToLive());
+        }
+        if (properties.getKeyPrefix() != null) {
+            configuration = configuration.prefixCacheNameWith(properties.getKeyPrefix());
+        }
+        if (!properties.isCacheNullValues()) {
+            configuration = configuration.disableCachingNullValues();
+        }
+        if (!properties.isUseKeyPrefix()) {
+            configuration = configuration.disableKeyPrefix();
+        }
+        return configuration;
+    }
+
+}
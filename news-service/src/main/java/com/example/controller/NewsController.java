@@ -1,9 +1,13 @@
 package com.example.controller;
 
 import com.example.LogMethodExecutionTime;
+import com.example.cache.NewsFeedCache;
 import com.example.controller.request.NewsRequest;
+import com.example.controller.response.NewsPageResponse;
 import com.example.controller.response.NewsResponse;
 import com.example.mapper.NewsMapper;
+import com.example.pagination.Cursor;
+import com.example.pagination.CursorResponse;
 import com.example.security.SecurityService;
 import com.example.service.NewsService;
 import com.example.util.ConstantsNews;
@@ -14,15 +18,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Slf4j
 @Validated
 @RestController
@@ -34,23 +43,47 @@ public class NewsController {
     private final NewsService newsService;
     private final NewsMapper newsMapper;
     private final SecurityService securityService;
+    private final NewsFeedCache newsFeedCache;
 
-    @Operation(summary = "Save News")
+    @Operation(summary = "Find News page")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Save News", content = {
-                    @Content(mediaType = "application/json", schema = @Schema(implementation = NewsResponse.class))}),
+            @ApiResponse(responseCode = "200", description = "Found News page", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = NewsPageResponse.class))}),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
     @GetMapping
     @LogMethodExecutionTime
-    @ResponseStatus(HttpStatus.OK)
-    public Page<NewsResponse> findAll(
+    public ResponseEntity<byte[]> findAll(
             @RequestParam(value = "page", defaultValue = ConstantsNews.DEFAULT_PAGE) Integer page,
             @RequestParam(value = "size", defaultValue = ConstantsNews.DEFAULT_PAGE_SIZE) Integer size,
             @RequestParam(value = "orderBy", defaultValue = ConstantsNews.DEFAULT_NEWS_ORDER_BY) String orderBy,
             @RequestParam(value = "direction", defaultValue = ConstantsNews.DEFAULT_DIRECTION) String direction
     ) {
         log.info("Find all news");
-        return newsService.findAllWithPaginationAndSorting(page, size, orderBy, direction).map(newsMapper::dtoToResponse);
+        byte[] body = newsFeedCache.getPage(page, size, orderBy, direction,
+                () -> newsService.findAllWithPaginationAndSorting(page, size, orderBy, direction)
+                        .map(newsMapper::dtoToResponse));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Find News by cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Find News after cursor", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = CursorResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor supplied"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @GetMapping("/cursor")
+    @LogMethodExecutionTime
+    @ResponseStatus(HttpStatus.OK)
+    public CursorResponse<NewsResponse> findAllWithCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = ConstantsNews.DEFAULT_PAGE_SIZE) @Positive Integer size,
+            @RequestParam(value = "direction", defaultValue = ConstantsNews.DEFAULT_DIRECTION) String direction
+    ) {
+        log.info("Find news after cursor {}", cursor);
+        return CursorResponse.of(newsService.findAllWithCursor(cursor, size, direction).map(newsMapper::dtoToResponse),
+                news -> Cursor.encode(news.getUpdateDate(), news.getId()));
     }
 
     @Operation(summary = "Save News")
@@ -84,6 +117,22 @@ public class NewsController {
         return newsMapper.dtoToResponse(newsService.findById(id));
     }
 
+    @Operation(summary = "Get News by ids")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found News, missing ids are skipped", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = NewsResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid ids supplied"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<NewsResponse> findAllByIds(
+            @RequestBody @NotEmpty @Size(max = ConstantsNews.MAX_BATCH_SIZE) List<@NotNull @Positive Long> ids) {
+        log.debug("Find news with ids: {}", ids);
+        return newsService.findAllByIds(ids).stream()
+                .map(newsMapper::dtoToResponse)
+                .toList();
+    }
+
     @Operation(summary = "Delete News by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Delete the News"),
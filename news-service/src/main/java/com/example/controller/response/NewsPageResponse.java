@@ -0,0 +1,17 @@
+package com.example.controller.response;
+
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+
+/**
+ * Схема ответа GET /api/v1/news для OpenAPI - страница {@link NewsResponse}.
+ * Сам ответ отдается готовым JSON из кэша ленты, экземпляры не создаются.
+ */
+public final class NewsPageResponse extends PageImpl<NewsResponse> {
+
+    private NewsPageResponse() {
+        super(List.of());
+    }
+
+}
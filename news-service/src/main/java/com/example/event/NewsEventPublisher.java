@@ -0,0 +1,68 @@
+package com.example.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+import static com.example.util.TransactionCallbacks.afterCommit;
+
+/**
+ * Публикует события создания и удаления News в поток Redis (Redis Stream),
+ * который служит брокером между сервисами. По этим событиям comments-service
+ * ведет реестр существующих News и не запрашивает news-service на каждое
+ * чтение комментариев.
+ * <p>
+ * Событие - запись потока с полями type (CREATED или DELETED) и newsId.
+ * Публикуется после фиксации транзакции. Если Redis недоступен, событие
+ * теряется, поэтому получатели считают события только подсказкой с
+ * ограниченным сроком жизни и перепроверяют News запросом к news-service.
+ * <p>
+ * Поток обрезается примерно до news.events.max-length последних событий
+ * (XTRIM MAXLEN ~), чтобы он и чтение его с начала при старте получателей
+ * не росли без ограничений.
+ */
+@Slf4j
+@Component
+public class NewsEventPublisher {
+
+    public static final String TYPE = "type";
+    public static final String NEWS_ID = "newsId";
+    public static final String CREATED = "CREATED";
+    public static final String DELETED = "DELETED";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String streamKey;
+    private final long maxLength;
+
+    public NewsEventPublisher(StringRedisTemplate redisTemplate,
+                              @Value("${news.events.stream:news-events}") String streamKey,
+                              @Value("${news.events.max-length:100000}") long maxLength) {
+        this.redisTemplate = redisTemplate;
+        this.streamKey = streamKey;
+        this.maxLength = maxLength;
+    }
+
+    public void created(Long newsId) {
+        afterCommit(() -> publish(CREATED, newsId));
+    }
+
+    public void deleted(Long newsId) {
+        afterCommit(() -> publish(DELETED, newsId));
+    }
+
+    private void publish(String type, Long newsId) {
+        try {
+            redisTemplate.opsForStream().add(StreamRecords.string(Map.of(TYPE, type, NEWS_ID, String.valueOf(newsId)))
+                    .withStreamKey(streamKey));
+            redisTemplate.opsForStream().trim(streamKey, maxLength, true);
+            log.debug("Published news event {} {}", type, newsId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish news event {} {}: {}", type, newsId, e.getMessage());
+        }
+    }
+
+}
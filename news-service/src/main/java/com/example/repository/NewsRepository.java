@@ -2,11 +2,55 @@ package com.example.repository;
 
 import com.example.entity.Journalist;
 import com.example.entity.News;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface NewsRepository extends JpaRepository<News, Long> {
 
     List<News> findAllByJournalist(Journalist journalist);
+
+    /**
+     * Email журналиста новости без загрузки самой новости и журналиста.
+     */
+    @Query("select j.email from News n join n.journalist j where n.id = :id")
+    Optional<String> findJournalistEmailById(@Param("id") Long id);
+
+    /**
+     * News вместе с журналистом одним запросом.
+     */
+    @Query("select n from News n join fetch n.journalist where n.id = :id")
+    Optional<News> findWithJournalistById(@Param("id") Long id);
+
+    @Query("select n from News n join fetch n.journalist where n.id in :ids")
+    List<News> findAllWithJournalistByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select n from News n join fetch n.journalist order by n.updateDate asc, n.id asc")
+    Slice<News> findFirstSliceAsc(Pageable pageable);
+
+    @Query("select n from News n join fetch n.journalist order by n.updateDate desc, n.id desc")
+    Slice<News> findFirstSliceDesc(Pageable pageable);
+
+    /**
+     * Условие n.updateDate >= :updateDate дублирует условие курсора,
+     * чтобы оно стало границей просмотра индекса (update_date, id).
+     */
+    @Query("select n from News n join fetch n.journalist "
+            + "where n.updateDate >= :updateDate and (n.updateDate > :updateDate or n.id > :id) "
+            + "order by n.updateDate asc, n.id asc")
+    Slice<News> findSliceAfterAsc(@Param("updateDate") LocalDateTime updateDate, @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Query("select n from News n join fetch n.journalist "
+            + "where n.updateDate <= :updateDate and (n.updateDate < :updateDate or n.id < :id) "
+            + "order by n.updateDate desc, n.id desc")
+    Slice<News> findSliceAfterDesc(@Param("updateDate") LocalDateTime updateDate, @Param("id") Long id,
+                                     Pageable pageable);
 }
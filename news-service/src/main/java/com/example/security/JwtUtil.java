@@ -1,5 +1,9 @@
 package com.example.security;
 
+import com.example.authorization.Role;
+import com.example.identity.Identity;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -7,18 +11,40 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Проверяет JWT и за один разбор возвращает пользователя токена:
+ * claims, прочитанные при проверке подписи, повторно не декодируются,
+ * роли сразу переводятся в маску {@link Role}.
+ * Ключ подписи и парсер создаются один раз при старте.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${token.signing.key}")
-    private String jwtSigningKey;
+    private static final String ROLES = "roles";
 
-    public void validateToken(final String token) {
-        Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token);
+    private final JwtParser parser;
+
+    public JwtUtil(@Value("${token.signing.key}") String jwtSigningKey) {
+        this.parser = Jwts.parserBuilder().setSigningKey(getSignKey(jwtSigningKey)).build();
+    }
+
+    /**
+     * @return пользователь токена, expiresAt = 0, если у токена нет exp
+     * @throws io.jsonwebtoken.JwtException если токен неверный или истек
+     */
+    public Identity parse(final String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        List<?> roles = claims.get(ROLES, List.class);
+        Date expiration = claims.getExpiration();
+        return new Identity(claims.getSubject(), roles == null ? 0 : Role.maskOf(roles),
+                expiration == null ? 0 : TimeUnit.MILLISECONDS.toSeconds(expiration.getTime()));
     }
 
-    private Key getSignKey() {
+    private static Key getSignKey(String jwtSigningKey) {
         byte[] keyBytes = Decoders.BASE64.decode(jwtSigningKey);
         return Keys.hmacShaKeyFor(keyBytes);
     }
@@ -1,94 +1,149 @@
 package com.example.security.impl;
 
+import com.example.authorization.AccessRule;
+import com.example.authorization.Role;
 import com.example.entity.dto.AuthorDto;
 import com.example.entity.dto.CommentDto;
-import com.example.entity.dto.JournalistDto;
-import com.example.entity.dto.NewsDto;
 import com.example.exception.NoAccessException;
 import com.example.exception.TokenIsNotValidException;
 import com.example.exception.WrongAuthorException;
 import com.example.exception.WrongJournalistException;
+import com.example.identity.Identity;
+import com.example.identity.IdentityHeader;
 import com.example.security.JwtUtil;
 import com.example.security.SecurityService;
 import com.example.security.model.User;
 import com.example.service.NewsService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.Base64;
+import java.time.Instant;
 
 @Service
 @RequiredArgsConstructor
 public class SecurityServiceImpl implements SecurityService {
 
+    private static final String BEARER = "Bearer ";
+    private static final String IDENTITY_ATTRIBUTE = SecurityServiceImpl.class.getName() + ".identity";
+
+    private static final AccessRule JOURNALIST_CRUD = AccessRule.anyOf(Role.ADMIN);
+    private static final AccessRule SAVE_NEWS = AccessRule.anyOf(Role.JOURNALIST);
+    private static final AccessRule UPDATE_NEWS = AccessRule.anyOf(Role.JOURNALIST, Role.ADMIN);
+
     private final JwtUtil jwtUtil;
+    private final IdentityHeader identityHeader;
     private final NewsService newsService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * Возвращает пользователя проверенного токена,
+     * exp = null, если у токена нет exp.
+     *
+     * @throws TokenIsNotValidException если токен неверный или истек
+     */
     @Override
     public User getPayload(String token) {
-        String[] chunks = token.split("\\.");
-        Base64.Decoder decoder = Base64.getUrlDecoder();
-        String payload = new String(decoder.decode(chunks[1]));
-        User user =null;
-        try {
-            user = objectMapper.readValue(payload, User.class);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
-        return user;
+        Identity identity = authenticate(token);
+        Long expiresAt = identity.expiresAt() == 0 ? null : identity.expiresAt();
+        return new User(identity.subject(), expiresAt, Role.setOf(identity.roles()));
     }
 
     @Override
     public void checkAccessForJournalistOperationCRUD(String token) {
-        try {
-            jwtUtil.validateToken(token);
-        } catch (Exception exception){
-            throw new TokenIsNotValidException();
-        }
-        User user = getPayload(token);
-        if(!user.getRoles().contains("ADMIN")){
-            throw new NoAccessException();
-        }
+        authorize(token, JOURNALIST_CRUD);
     }
 
     @Override
     public void checkAccessForSaveNews(String token) {
-        try {
-            jwtUtil.validateToken(token);
-        } catch (Exception exception){
-            throw new TokenIsNotValidException();
+        authorize(token, SAVE_NEWS);
+    }
+
+    @Override
+    public void checkAccessForDeleteAndUpdateNews(String token, Long newsId) {
+        Identity user = authorize(token, UPDATE_NEWS);
+        if (user.hasRole(Role.JOURNALIST)) {
+            if (!newsService.findJournalistEmailById(newsId).equals(user.subject())) {
+                throw new WrongJournalistException();
+            }
         }
-        User user = getPayload(token);
-        System.out.println(user);
-        if(user.getRoles().contains("JOURNALIST")){
-        } else {
+    }
+
+    /**
+     * @throws NoAccessException если ни одной роли из правила у пользователя нет
+     */
+    private Identity authorize(String token, AccessRule rule) {
+        Identity identity = authenticate(token);
+        if (!rule.allows(identity)) {
             throw new NoAccessException();
         }
+        return identity;
     }
 
-    @Override
-    public void checkAccessForDeleteAndUpdateNews(String token, Long newsId) {
+    /**
+     * Возвращает пользователя токена. Если запрос пришел через gateway
+     * с подписанным заголовком {@link IdentityHeader#NAME}, созданным для
+     * этого же токена, - берет пользователя из заголовка, иначе проверяет JWT.
+     * Пользователь токена из Authorization запоминается в атрибуте
+     * запроса, поэтому повторные проверки в том же запросе ничего не
+     * разбирают.
+     *
+     * @throws TokenIsNotValidException если токен неверный или истек
+     */
+    private Identity authenticate(String token) {
+        HttpServletRequest request = currentRequest(token);
+        if (request == null) {
+            return verify(token);
+        }
+        Identity identity = (Identity) request.getAttribute(IDENTITY_ATTRIBUTE);
+        if (identity == null) {
+            identity = fromIdentityHeader(request, token);
+            if (identity == null) {
+                identity = verify(token);
+            }
+            request.setAttribute(IDENTITY_ATTRIBUTE, identity);
+        }
+        return identity;
+    }
+
+    private Identity verify(String token) {
         try {
-            jwtUtil.validateToken(token);
+            return jwtUtil.parse(token);
         } catch (Exception exception){
             throw new TokenIsNotValidException();
         }
-        User user = getPayload(token);
-        if(user.getRoles().contains("JOURNALIST") || user.getRoles().contains("ADMIN")){
-            if(user.getRoles().contains("JOURNALIST")){
-                NewsDto news = newsService.findById(newsId);
-                JournalistDto journalist = news.getJournalist();
-                if(!journalist.getEmail().equals(user.getSub())){
-                    throw new WrongJournalistException();
-                }}
-            else {
-            }
-        } else {
-            throw new NoAccessException();
+    }
+
+    /**
+     * В заголовок gateway подписывает хэш проверенного токена, поэтому
+     * заголовок принимается, только если он создан для этого токена.
+     *
+     * @return пользователь или null, если заголовка нет или он не прошел проверку
+     */
+    private Identity fromIdentityHeader(HttpServletRequest request, String token) {
+        String header = request.getHeader(IdentityHeader.NAME);
+        return header == null ? null : identityHeader.verify(header, token, Instant.now().getEpochSecond());
+    }
+
+    /**
+     * @return текущий запрос или null, если запроса нет или в его Authorization другой токен
+     */
+    private static HttpServletRequest currentRequest(String token) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        return isSameToken(request.getHeader(HttpHeaders.AUTHORIZATION), token) ? request : null;
+    }
+
+    private static boolean isSameToken(String authorization, String token) {
+        if (authorization == null) {
+            return false;
         }
+        int offset = authorization.startsWith(BEARER) ? BEARER.length() : 0;
+        return authorization.length() - offset == token.length() && authorization.startsWith(token, offset);
     }
 
 }
@@ -1,17 +1,17 @@
 package com.example.security.model;
 
+import com.example.authorization.Role;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
     private String sub;
-    private Integer iat;
-    private Integer exp;
-    private List <String> roles;
+    private Long exp;
+    private Set<Role> roles;
 }
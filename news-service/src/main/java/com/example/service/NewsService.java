@@ -4,7 +4,9 @@ import com.example.controller.request.NewsRequest;
 import com.example.entity.News;
 import com.example.entity.dto.NewsDto;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface NewsService {
@@ -17,8 +19,14 @@ public interface NewsService {
 
     NewsDto findById(Long id);
 
+    String findJournalistEmailById(Long id);
+
+    List<NewsDto> findAllByIds(Collection<Long> ids);
+
     Page<NewsDto> findAllWithPaginationAndSorting(Integer page, Integer size, String orderBy, String direction);
 
+    Slice<NewsDto> findAllWithCursor(String cursor, Integer size, String direction);
+
     List<NewsDto> findAllByJournalist(Long journalistId);
 
 }
@@ -1,5 +1,6 @@
 package com.example.service.impl;
 
+import com.example.cache.NewsCacheInvalidator;
 import com.example.exception.EntityNotFoundException;
 import com.example.entity.Journalist;
 import com.example.entity.dto.JournalistDto;
@@ -31,6 +32,7 @@ public class JournalistServiceImpl implements JournalistService {
 
     private final JournalistRepository journalistRepository;
     private final JournalistMapper journalistMapper;
+    private final NewsCacheInvalidator newsCacheInvalidator;
 
     /**
      * Возвращает все существующие Journalis
@@ -67,7 +69,6 @@ public class JournalistServiceImpl implements JournalistService {
      */
     @Override
     @Transactional
-    @CacheEvict(cacheNames = "journalists", allEntries = true)
     public JournalistDto save(JournalistDto journalist) {
         journalist.setRegistrationDate(LocalDateTime.now());
         log.debug("Save journalist: {}", journalist);
@@ -84,11 +85,12 @@ public class JournalistServiceImpl implements JournalistService {
      */
     @Override
     @Transactional
-    @CacheEvict(cacheNames = "journalists", key="#id")
+    @CacheEvict(cacheNames = "journalists", key = "#id")
     public void deleteById(Long id) {
         Journalist journalist = getById(id);
         log.debug("Delete journalist with id: {}", id);
         journalistRepository.delete(journalist);
+        newsCacheInvalidator.journalistChanged(id);
     }
 
     /**
@@ -106,7 +108,9 @@ public class JournalistServiceImpl implements JournalistService {
         Journalist foundJournalist = getById(journalist.getId());
         journalist.setRegistrationDate(foundJournalist.getRegistrationDate());
         journalistMapper.updateEntity(foundJournalist, journalist);
-        return journalistMapper.entityToDto(journalistRepository.save(foundJournalist));
+        JournalistDto updated = journalistMapper.entityToDto(journalistRepository.save(foundJournalist));
+        newsCacheInvalidator.journalistChanged(journalist.getId());
+        return updated;
     }
 
     /**
@@ -117,7 +121,7 @@ public class JournalistServiceImpl implements JournalistService {
      * @throws EntityNotFoundException если Journalist не найден
      */
     @Override
-    @Cacheable(cacheNames = "journalists", key = "#id")
+    @Cacheable(cacheNames = "journalists", key = "#id", sync = true)
     public JournalistDto findById(Long id) {
         log.debug("Find journalist with id: {}", id);
         return Optional.of(getById(id))
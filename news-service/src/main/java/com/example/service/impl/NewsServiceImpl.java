@@ -1,5 +1,7 @@
 package com.example.service.impl;
 
+import com.example.cache.NewsCacheInvalidator;
+import com.example.event.NewsEventPublisher;
 import com.example.exception.EntityNotFoundException;
 import com.example.exception.JournalistDoesNotMatchException;
 import com.example.exception.JournalistIsBlockedException;
@@ -9,6 +11,7 @@ import com.example.entity.News;
 import com.example.entity.dto.NewsDto;
 import com.example.mapper.JournalistMapper;
 import com.example.mapper.NewsMapper;
+import com.example.pagination.Cursor;
 import com.example.repository.NewsRepository;
 import com.example.service.JournalistService;
 import com.example.service.NewsService;
@@ -18,12 +21,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +44,8 @@ public class NewsServiceImpl implements NewsService {
     private final JournalistService journalistService;
     private final NewsMapper newsMapper;
     private final JournalistMapper journalistMapper;
+    private final NewsCacheInvalidator newsCacheInvalidator;
+    private final NewsEventPublisher newsEventPublisher;
 
     /**
      * Создаёт новоый News из NewsRequest
@@ -51,7 +59,6 @@ public class NewsServiceImpl implements NewsService {
      */
     @Override
     @Transactional
-    @CacheEvict(cacheNames = "news", allEntries = true)
     public NewsDto save(NewsRequest newsRequest) {
         Journalist journalist = journalistService.findByUsername(newsRequest.getUsername());
         if(journalist.isBlocked()){
@@ -68,7 +75,10 @@ public class NewsServiceImpl implements NewsService {
                 .journalist(journalist)
                 .build();
         log.debug("Save news: {}", news);
-        return newsMapper.entityToDto(newsRepository.save(news));
+        News savedNews = newsRepository.save(news);
+        newsCacheInvalidator.newsChanged(journalist.getId());
+        newsEventPublisher.created(savedNews.getId());
+        return newsMapper.entityToDto(savedNews);
     }
 
     /**
@@ -80,19 +90,26 @@ public class NewsServiceImpl implements NewsService {
      */
     @Override
     @Transactional
-    @CacheEvict(cacheNames = "news", key="#id")
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "news", key = "#id"),
+            @CacheEvict(cacheNames = "newsOwner", key = "#id")})
     public void deleteById(Long id) {
         News news = getById(id);
         log.debug("Delete news with id: {}", id);
         newsRepository.delete(news);
+        newsCacheInvalidator.newsChanged(news.getJournalist().getId());
+        newsEventPublisher.deleted(id);
     }
 
     /**
      * Обновляет уже существующий News из информации полученной в NewsRequest
+     * Проверяет принадлежит ли данная новость Journalist из NewsRequest,
+     * ессли нет - то выбрасывает соответствующее исключение - JournalistDoesNotMatchException
      * Проверяет не заблокирован ли Journalist,
      * ессли да - то выбрасывает соответствующее исключение - JournalistIsBlockedException
-     * Проверяет принадлежит ли данная новость этому Journalist,
-     * ессли нет - то выбрасывает соответствующее исключение - JournalistDoesNotMatchException
+     * <p>
+     * News и ее Journalist загружаются одним запросом, Journalist
+     * по username отдельно не ищется.
      *
      * @param newsRequest NewsRequest с информацией об обновлении
      * @param id News для обновлении
@@ -106,18 +123,21 @@ public class NewsServiceImpl implements NewsService {
     @CachePut(cacheNames = "news", key = "#id")
     public NewsDto update(Long id, NewsRequest newsRequest) {
         log.debug("Update news with id {}", id);
-        Journalist journalist = journalistService.findByUsername(newsRequest.getUsername());
-        News foundNews = getById(id);
-        if(journalist.isBlocked()){
-            throw new JournalistIsBlockedException(journalist.getId());
-        }
-        if(foundNews.getJournalist().getId() != journalist.getId()){
+        News foundNews = newsRepository.findWithJournalistById(id)
+                .orElseThrow(() -> new EntityNotFoundException(News.class, id));
+        Journalist journalist = foundNews.getJournalist();
+        if (!journalist.getUsername().equals(newsRequest.getUsername())) {
             throw new JournalistDoesNotMatchException();
         }
+        if (journalist.isBlocked()) {
+            throw new JournalistIsBlockedException(journalist.getId());
+        }
         foundNews.setUpdateDate(LocalDateTime.now());
         foundNews.setTitle(newsRequest.getTitle());
         foundNews.setText(newsRequest.getText());
-        return newsMapper.entityToDto(newsRepository.save(foundNews));
+        News savedNews = newsRepository.save(foundNews);
+        newsCacheInvalidator.newsChanged(journalist.getId());
+        return newsMapper.entityToDto(savedNews);
     }
 
     /**
@@ -128,7 +148,7 @@ public class NewsServiceImpl implements NewsService {
      * @throws EntityNotFoundException если News не найден
      */
     @Override
-    @Cacheable(cacheNames = "news", key="#id")
+    @Cacheable(cacheNames = "news", key = "#id", sync = true)
     public NewsDto findById(Long id) {
         log.debug("Find news with id: {}", id);
         return Optional.of(getById(id))
@@ -136,6 +156,40 @@ public class NewsServiceImpl implements NewsService {
                 .get();
     }
 
+    /**
+     * Возвращает email журналиста News для проверки прав на изменение
+     * и удаление. Загружается только email, без News и Journalist.
+     * Журналист новости не меняется, поэтому запись сбрасывается только
+     * при удалении News и при изменении журналистов.
+     *
+     * @param id идентификатор News
+     * @return email журналиста News
+     * @throws EntityNotFoundException если News не найден
+     */
+    @Override
+    @Cacheable(cacheNames = "newsOwner", key = "#id", sync = true)
+    public String findJournalistEmailById(Long id) {
+        log.debug("Find journalist email of news with id: {}", id);
+        return newsRepository.findJournalistEmailById(id)
+                .orElseThrow(() -> new EntityNotFoundException(News.class, id));
+    }
+
+    /**
+     * Ищет News по списку идентификаторов одним запросом.
+     * Несуществующие и удаленные News пропускаются.
+     *
+     * @param ids идентификаторы News
+     * @return найденные NewsDto
+     */
+    @Override
+    public List<NewsDto> findAllByIds(Collection<Long> ids) {
+        log.debug("Find news with ids: {}", ids);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return newsMapper.toListDto(newsRepository.findAllWithJournalistByIdIn(new HashSet<>(ids)));
+    }
+
     /**
      * Возвращает все существующие News
      *
@@ -159,6 +213,35 @@ public class NewsServiceImpl implements NewsService {
         return foundNews.map(newsMapper::entityToDto);
     }
 
+    /**
+     * Возвращает News, отсортированные по дате обновления и id,
+     * начиная сразу после курсора. Общее количество не считается.
+     *
+     * @param cursor курсор последней показанной News, null - первая страница
+     * @param size количество NewsDto на странице (по умолчанию 15)
+     * @param direction как сотрировать (по умолчению "ASC")
+     * @return срез с информацией о NewsDto
+     * @throws IllegalArgumentException если курсор некорректный
+     */
+    @Override
+    public Slice<NewsDto> findAllWithCursor(String cursor, Integer size, String direction) {
+        log.info("Show news after cursor {}", cursor);
+        boolean descending = Sort.Direction.DESC.name().equals(direction);
+        PageRequest pageRequest = PageRequest.ofSize(size);
+        Slice<News> foundNews;
+        if (cursor == null || cursor.isEmpty()) {
+            foundNews = descending
+                    ? newsRepository.findFirstSliceDesc(pageRequest)
+                    : newsRepository.findFirstSliceAsc(pageRequest);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            foundNews = descending
+                    ? newsRepository.findSliceAfterDesc(after.getUpdateDate(), after.getId(), pageRequest)
+                    : newsRepository.findSliceAfterAsc(after.getUpdateDate(), after.getId(), pageRequest);
+        }
+        return foundNews.map(newsMapper::entityToDto);
+    }
+
     /**
      * Возвращает все существующие News, принадлежащие данному Journalist
      *
@@ -166,6 +249,7 @@ public class NewsServiceImpl implements NewsService {
      * @return лист с информацией о NewsDto
      */
     @Override
+    @Cacheable(cacheNames = "newsByJournalist", key = "#journalistId", sync = true)
     public List<NewsDto> findAllByJournalist(Long journalistId) {
         Journalist journalist = journalistMapper.dtoToEntity(journalistService.findById(journalistId));
         return newsMapper.toListDto(newsRepository.findAllByJournalist(journalist));
@@ -9,5 +9,10 @@ public class ConstantsNews {
     public final static String DEFAULT_DIRECTION = "ASC";
     public static final String CACHE_TYPE_LRU = "LRU";
     public static final String CACHE_TYPE_LFU = "LFU";
+    public static final String NEWS_CACHE = "news";
+    public static final String JOURNALISTS_CACHE = "journalists";
+    public static final String NEWS_BY_JOURNALIST_CACHE = "newsByJournalist";
+    public static final String NEWS_OWNER_CACHE = "newsOwner";
+    public static final int MAX_BATCH_SIZE = 500;
 
 }
@@ -0,0 +1,118 @@
+package com.example.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочный тест запущенного сервиса: load.connections соединений
+ * (по умолчанию 10 000) одновременно и без пауз отправляют GET load.url.
+ * После прогрева load.warmup считает успешные ответы и время ответа
+ * в течение load.duration и печатает пропускную способность, p50, p99
+ * и максимум.
+ * <p>
+ * Для сравнения режимов сервис запускается дважды - с
+ * spring.threads.virtual.enabled=false и true, например
+ * gradle :news-service:loadTest -PloadUrl=http://localhost:8082/api/v1/comments.
+ * Каждое соединение - отдельный виртуальный поток клиента, поэтому сам
+ * клиент не ограничивает число одновременных запросов.
+ */
+@EnabledIfSystemProperty(named = "load.url", matches = ".+")
+class HttpLoadBenchmarkIT {
+
+    @Test
+    void shouldMeasureThroughputAndLatency() throws Exception {
+        URI uri = URI.create(System.getProperty("load.url"));
+        int connections = Integer.getInteger("load.connections", 10_000);
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureTo = measureFrom + duration.toNanos();
+        List<long[]> latencies = new CopyOnWriteArrayList<>();
+        LongAdder errors = new LongAdder();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+            for (int i = 0; i < connections; i++) {
+                workers.execute(() -> latencies.add(send(client, request, measureFrom, measureTo, errors)));
+            }
+            workers.shutdown();
+            assertTrue(workers.awaitTermination(warmup.plus(duration).toSeconds() + 60, TimeUnit.SECONDS));
+        }
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%s, %d connections: %d requests, %d errors, %.0f req/s, "
+                        + "p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                uri, connections, all.length, errors.sum(), all.length / (double) duration.toSeconds(),
+                millis(percentile(all, 0.50)), millis(percentile(all, 0.99)), millis(percentile(all, 1.0)));
+        assertTrue(all.length > 0);
+    }
+
+    /**
+     * Отправляет запросы одного соединения до конца замера.
+     *
+     * @return время успешных ответов в наносекундах, полученных во время замера
+     */
+    private static long[] send(HttpClient client, HttpRequest request, long measureFrom, long measureTo,
+                               LongAdder errors) {
+        long[] latencies = new long[256];
+        int count = 0;
+        long start;
+        while ((start = System.nanoTime()) < measureTo) {
+            boolean ok;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long end = System.nanoTime();
+            if (start < measureFrom || end > measureTo) {
+                continue;
+            }
+            if (!ok) {
+                errors.increment();
+            } else {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count << 1);
+                }
+                latencies[count++] = end - start;
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+}
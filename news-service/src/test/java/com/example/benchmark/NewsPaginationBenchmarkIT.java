@@ -0,0 +1,129 @@
+package com.example.benchmark;
+
+import com.example.entity.News;
+import com.example.pagination.Cursor;
+import com.example.repository.NewsRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнивает время получения глубокой страницы ленты новостей
+ * через смещение (PageRequest, с подсчетом количества) и через курсор.
+ * <p>
+ * Запускается только с -Dbenchmark.rows=N, например
+ * gradle :news-service:paginationBenchmark -PbenchmarkRows=10000000.
+ */
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark.rows", matches = "\\d+")
+@SpringBootTest(properties = {"spring.main.allow-bean-definition-overriding=true",
+        "spring.mvc.pathmatch.matching-strategy = ANT_PATH_MATCHER",
+        "spring.jpa.show-sql=false"})
+class NewsPaginationBenchmarkIT {
+
+    private static final int PAGE = 10_000;
+    private static final int SIZE = 15;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:12")
+            .withUsername("username")
+            .withPassword("password")
+            .withExposedPorts(5432);
+
+    @DynamicPropertySource
+    static void overrideProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgreSQLContainer::getDriverClassName);
+    }
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void fillNews() {
+        long rows = Long.getLong("benchmark.rows");
+        Long journalistId = jdbcTemplate.queryForObject("select min(id) from journalist", Long.class);
+        jdbcTemplate.update("insert into news (create_date, update_date, title, text, journalist_id, deleted) "
+                + "select ts, ts, 'Title ' || i, 'Text of news ' || i, ?, false "
+                + "from (select i, timestamp '2024-01-01' + i * interval '1 second' as ts "
+                + "from generate_series(1, ?) as i) as s", journalistId, rows);
+        jdbcTemplate.execute("analyze news");
+    }
+
+    @Test
+    void shouldCompareDeepPageLatency() {
+        // given
+        PageRequest offsetPage = PageRequest.of(PAGE, SIZE, Sort.by(News.Fields.updateDate, News.Fields.id));
+        Cursor cursor = cursorBefore(PAGE * SIZE);
+
+        // when
+        long[] offset = measure(() -> newsRepository.findAll(offsetPage).getContent());
+        long[] keyset = measure(() -> newsRepository.findSliceAfterAsc(
+                cursor.getUpdateDate(), cursor.getId(), PageRequest.ofSize(SIZE)).getContent());
+
+        // then
+        Slice<News> slice = newsRepository.findSliceAfterAsc(cursor.getUpdateDate(), cursor.getId(),
+                PageRequest.ofSize(SIZE));
+        assertEquals(newsRepository.findAll(offsetPage).getContent().stream().map(News::getId).toList(),
+                slice.getContent().stream().map(News::getId).toList());
+        System.out.printf("page %d of %d rows: offset p50 %.2f ms, p95 %.2f ms; cursor p50 %.2f ms, p95 %.2f ms%n",
+                PAGE, Long.getLong("benchmark.rows"),
+                millis(offset, 0.5), millis(offset, 0.95), millis(keyset, 0.5), millis(keyset, 0.95));
+    }
+
+    /**
+     * Курсор записи, после которой начинается нужная страница.
+     */
+    private Cursor cursorBefore(long offset) {
+        return jdbcTemplate.queryForObject("select update_date, id from news where deleted = false "
+                        + "order by update_date, id offset ? limit 1",
+                (rs, rowNum) -> Cursor.decode(Cursor.encode(
+                        rs.getObject("update_date", LocalDateTime.class), rs.getLong("id"))),
+                offset - 1);
+    }
+
+    private static long[] measure(Supplier<?> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * sorted.length))] / 1_000_000.0;
+    }
+
+}
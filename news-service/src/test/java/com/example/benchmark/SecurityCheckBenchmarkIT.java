@@ -0,0 +1,166 @@
+package com.example.benchmark;
+
+import com.example.authorization.Role;
+import com.example.identity.IdentityHeader;
+import com.example.security.JwtUtil;
+import com.example.security.SecurityService;
+import com.example.security.impl.SecurityServiceImpl;
+import com.example.security.model.User;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.management.ManagementFactory;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает время CPU и память, выделенную на одну проверку доступа.
+ * <p>
+ * Запускается только с -Dbenchmark.iterations=N, например
+ * gradle :news-service:securityBenchmark -PbenchmarkIterations=200000.
+ */
+@EnabledIfSystemProperty(named = "benchmark.iterations", matches = "\\d+")
+class SecurityCheckBenchmarkIT {
+
+    private static final String SIGNING_KEY = "413F4428472B4B6250655368566D5970337336763979244226452948404D6351";
+    private static final String EMAIL = "anisa@gmail.com";
+
+    private int iterations;
+    private JwtUtil jwtUtil;
+    private IdentityHeader identityHeader;
+    private SecurityService securityService;
+    private long expiresAt;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        iterations = Integer.getInteger("benchmark.iterations");
+        jwtUtil = new JwtUtil(SIGNING_KEY);
+        identityHeader = IdentityHeader.fromTokenSigningKey(SIGNING_KEY);
+        securityService = new SecurityServiceImpl(jwtUtil, identityHeader, null);
+        expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        token = Jwts.builder()
+                .setSubject(EMAIL)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(expiresAt))
+                .claim("roles", List.of("ADMIN"))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * Полная проверка JWT и проверка заголовка {@link IdentityHeader#NAME}
+     * от gateway. Атрибуты запроса очищаются на каждой итерации, чтобы
+     * каждая проверка была первой в своем запросе.
+     */
+    @Test
+    void shouldCompareJwtWithIdentityHeader() {
+        // given
+        MockHttpServletRequest plain = request();
+        MockHttpServletRequest fromGateway = request();
+        fromGateway.addHeader(IdentityHeader.NAME,
+                identityHeader.sign(IdentityHeader.tokenHash(token), EMAIL, Role.maskOf(Role.ADMIN),
+                        TimeUnit.MILLISECONDS.toSeconds(expiresAt)));
+
+        // when
+        Cost jwt = measure(plain, () -> {
+            plain.clearAttributes();
+            securityService.checkAccessForJournalistOperationCRUD(token);
+        });
+        Cost header = measure(fromGateway, () -> {
+            fromGateway.clearAttributes();
+            securityService.checkAccessForJournalistOperationCRUD(token);
+        });
+
+        // then
+        print("JWT", jwt);
+        print("identity header", header);
+    }
+
+    /**
+     * Прежняя двойная обработка токена (проверка подписи новым парсером,
+     * затем split, Base64 и ObjectMapper для payload), разбор за один проход
+     * и повторная проверка в том же запросе.
+     */
+    @Test
+    void shouldCompareDoubleParseWithSinglePass() {
+        // given
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        MockHttpServletRequest request = request();
+
+        // when
+        Cost doubleParse = measure(null, () -> {
+            Jwts.parserBuilder()
+                    .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY)))
+                    .build()
+                    .parseClaimsJws(token);
+            String payload = new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]));
+            try {
+                objectMapper.readValue(payload, User.class);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Cost singlePass = measure(null, () -> jwtUtil.parse(token));
+        Cost sameRequest = measure(request, () -> securityService.checkAccessForJournalistOperationCRUD(token));
+
+        // then
+        print("double parse", doubleParse);
+        print("single pass", singlePass);
+        print("same request", sameRequest);
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+
+    private Cost measure(MockHttpServletRequest request, Runnable check) {
+        if (request == null) {
+            RequestContextHolder.resetRequestAttributes();
+        } else {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        }
+        for (int i = 0; i < iterations / 10; i++) {
+            check.run();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long cpu = threads.getCurrentThreadCpuTime();
+        long bytes = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            check.run();
+        }
+        return new Cost((threads.getCurrentThreadCpuTime() - cpu) / (double) iterations,
+                (threads.getCurrentThreadAllocatedBytes() - bytes) / (double) iterations);
+    }
+
+    private static void print(String name, Cost cost) {
+        System.out.printf("%s: %.2f us CPU, %.0f bytes allocated per check%n",
+                name, cost.nanos() / 1000, cost.bytes());
+    }
+
+    private record Cost(double nanos, double bytes) {
+    }
+
+}
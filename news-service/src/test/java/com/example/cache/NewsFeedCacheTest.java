@@ -0,0 +1,100 @@
+package com.example.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NewsFeedCacheTest {
+
+    private static final String GENERATION_KEY = "news-generation";
+    private static final String CHANNEL = "news-generation-channel";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private NewsFeedCache newsFeedCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        newsFeedCache = new NewsFeedCache(redisTemplate, new ObjectMapper(), GENERATION_KEY, CHANNEL,
+                1, DataSize.ofKilobytes(64), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldServeRepeatedRequestsFromMemory() {
+        // when
+        byte[] first = newsFeedCache.getPage(0, 15, "id", "ASC", this::loadPage);
+        byte[] second = newsFeedCache.getPage(0, 15, "id", "ASC", this::loadPage);
+
+        // then
+        assertEquals(1, loads.get());
+        assertArrayEquals(first, second);
+        assertEquals("[\"news 1\"]", new String(second, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldLoadPageAgainAfterNextGeneration() {
+        // given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(GENERATION_KEY)).thenReturn(1L);
+        newsFeedCache.getPage(0, 15, "id", "ASC", this::loadPage);
+
+        // when
+        newsFeedCache.nextGeneration();
+        byte[] page = newsFeedCache.getPage(0, 15, "id", "ASC", this::loadPage);
+
+        // then
+        assertEquals(2, loads.get());
+        assertEquals(1L, newsFeedCache.getGeneration());
+        assertEquals("[\"news 2\"]", new String(page, StandardCharsets.UTF_8));
+        verify(redisTemplate).convertAndSend(CHANNEL, "1");
+    }
+
+    @Test
+    void shouldNotCachePagesAfterMaxCachedPage() {
+        // when
+        newsFeedCache.getPage(2, 15, "id", "ASC", this::loadPage);
+        newsFeedCache.getPage(2, 15, "id", "ASC", this::loadPage);
+
+        // then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldCachePagesWithDifferentParametersSeparately() {
+        // when
+        newsFeedCache.getPage(0, 15, "id", "ASC", this::loadPage);
+        newsFeedCache.getPage(0, 15, "id", "DESC", this::loadPage);
+        newsFeedCache.getPage(1, 15, "id", "ASC", this::loadPage);
+
+        // then
+        assertEquals(3, loads.get());
+    }
+
+    private List<String> loadPage() {
+        return List.of("news " + loads.incrementAndGet());
+    }
+
+}
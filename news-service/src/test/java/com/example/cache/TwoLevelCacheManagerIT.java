@@ -0,0 +1,142 @@
+package com.example.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@Testcontainers
+class TwoLevelCacheManagerIT {
+
+    private static final String CHANNEL = "news-service:cache-invalidation";
+
+    @Container
+    static GenericContainer<?> redisContainer = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private final List<RedisMessageListenerContainer> listenerContainers = new ArrayList<>();
+    private LettuceConnectionFactory connectionFactory;
+    private TwoLevelCacheManager firstNode;
+    private TwoLevelCacheManager secondNode;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisContainer.getHost(), redisContainer.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        firstNode = node();
+        secondNode = node();
+    }
+
+    @AfterEach
+    void tearDown() {
+        listenerContainers.forEach(RedisMessageListenerContainer::stop);
+        connectionFactory.getConnection().serverCommands().flushAll();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromLocalCache() {
+        // given
+        Cache cache = firstNode.getCache("news");
+        cache.put(1L, "first");
+        connectionFactory.getConnection().serverCommands().flushAll();
+
+        // when
+        Cache.ValueWrapper value = cache.get(1L);
+
+        // then
+        assertEquals("first", value.get());
+    }
+
+    @Test
+    void shouldDropStaleLocalEntryOnOtherNodeAfterEvict() {
+        // given
+        firstNode.getCache("news").put(1L, "first");
+        assertEquals("first", secondNode.getCache("news").get(1L, String.class));
+
+        // when
+        firstNode.getCache("news").evict(1L);
+
+        // then
+        assertNull(await(() -> secondNode.getCache("news").get(1L, String.class), null));
+    }
+
+    @Test
+    void shouldReadNewValueOnOtherNodeAfterUpdate() {
+        // given
+        firstNode.getCache("news").put(1L, "first");
+        assertEquals("first", secondNode.getCache("news").get(1L, String.class));
+
+        // when
+        firstNode.getCache("news").put(1L, "updated");
+
+        // then
+        assertEquals("updated", await(() -> secondNode.getCache("news").get(1L, String.class), "updated"));
+    }
+
+    @Test
+    void shouldClearLocalEntriesOnOtherNode() {
+        // given
+        firstNode.getCache("journalists").put(1L, "first");
+        firstNode.getCache("journalists").put(2L, "second");
+        secondNode.getCache("journalists").get(1L);
+        secondNode.getCache("journalists").get(2L);
+
+        // when
+        firstNode.getCache("journalists").clear();
+
+        // then
+        assertNull(await(() -> secondNode.getCache("journalists").get(1L, String.class), null));
+        assertNull(secondNode.getCache("journalists").get(2L));
+    }
+
+    private TwoLevelCacheManager node() {
+        RedisCacheManager redisCacheManager = RedisCacheManager.create(connectionFactory);
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisCacheManager, redisTemplate,
+                CHANNEL, 100, Duration.ofMinutes(10));
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(CHANNEL));
+        container.afterPropertiesSet();
+        container.start();
+        listenerContainers.add(container);
+        return cacheManager;
+    }
+
+    /**
+     * Повторяет чтение, пока не получит ожидаемое значение, но не дольше 5 секунд.
+     */
+    private static <T> T await(Supplier<T> read, T expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        T value = read.get();
+        while (!Objects.equals(value, expected) && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(1_000_000);
+            value = read.get();
+        }
+        return value;
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.example.controller;
 
+import com.example.cache.NewsFeedCache;
 import com.example.controller.request.JournalistRequest;
 import com.example.controller.request.NewsRequest;
 import com.example.controller.response.JournalistResponse;
@@ -22,7 +23,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.never;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -48,6 +55,9 @@ class NewsControllerTest {
     @MockBean
     private SecurityService securityService;
 
+    @MockBean
+    private NewsFeedCache newsFeedCache;
+
     @Test
     void shouldGetNewsById() throws Exception {
         //given
@@ -74,6 +84,47 @@ class NewsControllerTest {
         verify(newsService, times(1)).findById(newsId);
     }
 
+    @Test
+    void shouldGetNewsPageFromFeedCache() throws Exception {
+        //given
+        byte[] page = "{\"content\":[{\"title\":\"Eget velit aliquet sagittis id.\"}]}".getBytes(StandardCharsets.UTF_8);
+
+        //when
+        when(newsFeedCache.getPage(eq(0), eq(15), eq("updateDate"), eq("ASC"), any())).thenReturn(page);
+
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.get(RESOURCE_URL))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().bytes(page));
+
+        verify(newsService, never()).findAllWithPaginationAndSorting(anyInt(), anyInt(), anyString(), anyString());
+    }
+
+    @Test
+    void shouldGetNewsByIds() throws Exception {
+        //given
+        Long newsId = ConstantsForTest.NEWS_ID;
+        NewsDto news = NewsTestData.builder().build().buildNewsDto();
+        NewsResponse newsResponse = NewsTestData.builder().build().buildNewsResponse();
+
+        //when
+        when(newsService.findAllByIds(List.of(newsId))).thenReturn(List.of(news));
+        when(newsMapper.dtoToResponse(news)).thenReturn(newsResponse);
+
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.post(RESOURCE_URL + "/batch")
+                        .content(objectMapper.writeValueAsString(List.of(newsId)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].title").value("Eget velit aliquet sagittis id."));
+
+        verify(newsService, times(1)).findAllByIds(List.of(newsId));
+    }
+
     @Test
     void shouldSaveNews() throws Exception {
         //given
@@ -0,0 +1,119 @@
+package com.example.security.impl;
+
+import com.example.authorization.Role;
+import com.example.exception.NoAccessException;
+import com.example.identity.IdentityHeader;
+import com.example.security.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class SecurityServiceImplTest {
+
+    private static final String SIGNING_KEY = "413F4428472B4B6250655368566D5970337336763979244226452948404D6351";
+    private static final String EMAIL = "anisa@gmail.com";
+
+    private final IdentityHeader identityHeader = IdentityHeader.fromTokenSigningKey(SIGNING_KEY);
+
+    private JwtUtil jwtUtil;
+    private SecurityServiceImpl securityService;
+    private long expiresAt;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JwtUtil(SIGNING_KEY));
+        securityService = new SecurityServiceImpl(jwtUtil, identityHeader, null);
+        expiresAt = Instant.now().plusSeconds(TimeUnit.HOURS.toSeconds(1)).getEpochSecond();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldAcceptIdentityHeaderWithoutJwtVerification() {
+        // given
+        String token = token("ADMIN");
+        request(token, identityHeader.sign(IdentityHeader.tokenHash(token), EMAIL, Role.maskOf(Role.ADMIN), expiresAt));
+
+        // when, then
+        assertDoesNotThrow(() -> securityService.checkAccessForJournalistOperationCRUD(token));
+        verify(jwtUtil, never()).parse(token);
+    }
+
+    @Test
+    void shouldRejectIdentityHeaderSignedForAnotherToken() {
+        // given
+        String adminToken = token("ADMIN");
+        String subscriberToken = token("SUBSCRIBER");
+        request(subscriberToken, identityHeader.sign(IdentityHeader.tokenHash(adminToken), EMAIL,
+                Role.maskOf(Role.ADMIN), expiresAt));
+
+        // when, then
+        assertThrows(NoAccessException.class,
+                () -> securityService.checkAccessForJournalistOperationCRUD(subscriberToken));
+        verify(jwtUtil).parse(subscriberToken);
+    }
+
+    @Test
+    void shouldVerifyJwtWhenIdentityHeaderIsForged() {
+        // given
+        String token = token("SUBSCRIBER");
+        request(token, IdentityHeader.fromTokenSigningKey(SIGNING_KEY.replace('4', '5'))
+                .sign(IdentityHeader.tokenHash(token), EMAIL, Role.maskOf(Role.ADMIN), expiresAt));
+
+        // when, then
+        assertThrows(NoAccessException.class, () -> securityService.checkAccessForJournalistOperationCRUD(token));
+        verify(jwtUtil).parse(token);
+    }
+
+    @Test
+    void shouldVerifyJwtWhenIdentityHeaderIsExpired() {
+        // given
+        String token = token("ADMIN");
+        request(token, identityHeader.sign(IdentityHeader.tokenHash(token), EMAIL, Role.maskOf(Role.ADMIN),
+                Instant.now().getEpochSecond() - 1));
+
+        // when, then
+        assertDoesNotThrow(() -> securityService.checkAccessForJournalistOperationCRUD(token));
+        verify(jwtUtil).parse(token);
+    }
+
+    private static String token(String role) {
+        return Jwts.builder()
+                .setSubject(EMAIL)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .claim("roles", List.of(role))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static void request(String token, String identity) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        request.addHeader(IdentityHeader.NAME, identity);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+}
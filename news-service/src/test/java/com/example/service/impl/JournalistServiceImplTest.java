@@ -1,5 +1,6 @@
 package com.example.service.impl;
 
+import com.example.cache.NewsCacheInvalidator;
 import com.example.entity.Journalist;
 import com.example.entity.dto.AuthorDto;
 import com.example.entity.dto.JournalistDto;
@@ -31,6 +32,9 @@ class JournalistServiceImplTest {
     @Mock
     private JournalistMapper journalistMapper;
 
+    @Mock
+    private NewsCacheInvalidator newsCacheInvalidator;
+
     @InjectMocks
     private JournalistServiceImpl journalistService;
 
@@ -89,6 +89,19 @@ public class NewsServiceImplIT {
         assertEquals(newsFromDBById.getJournalist().getUsername(), newsRequest.getUsername());
     }
 
+    @Test
+    void shouldFindJournalistEmailById() {
+        //given
+        NewsRequest newsRequest = NewsTestData.builder().build().buildNewsRequest();
+
+        //when
+        NewsDto newsSaved = newsService.save(newsRequest);
+        String email = newsService.findJournalistEmailById(newsSaved.getId());
+
+        //then
+        assertEquals(newsSaved.getJournalist().getEmail(), email);
+    }
+
     @Test
     void shouldNotGetNewsByIdAndThrowsEntityNotFoundException() {
         //given
@@ -1,11 +1,15 @@
 package com.example.service.impl;
 
+import com.example.cache.NewsCacheInvalidator;
+import com.example.event.NewsEventPublisher;
 import com.example.controller.request.NewsRequest;
 import com.example.entity.Journalist;
 import com.example.entity.News;
 import com.example.entity.dto.JournalistDto;
 import com.example.entity.dto.NewsDto;
 import com.example.exception.EntityNotFoundException;
+import com.example.exception.JournalistDoesNotMatchException;
+import com.example.exception.JournalistIsBlockedException;
 import com.example.mapper.JournalistMapper;
 import com.example.mapper.NewsMapper;
 import com.example.repository.NewsRepository;
@@ -20,7 +24,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.testcontainers.shaded.org.checkerframework.checker.units.qual.N;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -44,6 +50,12 @@ class NewsServiceImplTest {
     @Mock
     private JournalistMapper journalistMapper;
 
+    @Mock
+    private NewsCacheInvalidator newsCacheInvalidator;
+
+    @Mock
+    private NewsEventPublisher newsEventPublisher;
+
     @InjectMocks
     private NewsServiceImpl newsService;
 
@@ -109,6 +121,60 @@ class NewsServiceImplTest {
         assertEquals(errorMessage, thrown.getMessage());
     }
 
+    @Test
+    void shouldFindJournalistEmailById() {
+        // given
+        Long id = ConstantsForTest.NEWS_ID;
+
+        when(newsRepository.findJournalistEmailById(id))
+                .thenReturn(Optional.of(ConstantsForTest.JOURNALIST_EMAIL));
+
+        //when
+        String actual = newsService.findJournalistEmailById(id);
+
+        //then
+        assertEquals(ConstantsForTest.JOURNALIST_EMAIL, actual);
+        verify(newsRepository, never()).findById(id);
+    }
+
+    @Test
+    void shouldNotFindJournalistEmailByIdAndThrowsNewsNotFoundException() {
+        // given
+        Long id = ConstantsForTest.NEWS_ID;
+        String errorMessage = "News with id: " + id + " not found";
+
+        when(newsRepository.findJournalistEmailById(id))
+                .thenReturn(Optional.empty());
+
+        //when
+        EntityNotFoundException thrown = assertThrows(EntityNotFoundException.class, () -> {
+            newsService.findJournalistEmailById(id);
+        });
+
+        //then
+        assertEquals(errorMessage, thrown.getMessage());
+    }
+
+    @Test
+    void shouldFindNewsByIds() {
+        // given
+        List<Long> ids = List.of(ConstantsForTest.NEWS_ID, ConstantsForTest.NEWS_ID);
+        List<News> news = List.of(NewsTestData.builder().build().buildNews());
+        List<NewsDto> expected = List.of(NewsTestData.builder().build().buildNewsDto());
+
+        when(newsRepository.findAllWithJournalistByIdIn(Set.of(ConstantsForTest.NEWS_ID)))
+                .thenReturn(news);
+        when(newsMapper.toListDto(news))
+                .thenReturn(expected);
+
+        //when
+        List<NewsDto> actual = newsService.findAllByIds(ids);
+
+        //then
+        assertEquals(expected, actual);
+        verify(newsRepository).findAllWithJournalistByIdIn(Set.of(ConstantsForTest.NEWS_ID));
+    }
+
     @Test
     void shouldGetNewsById() {
         // given
@@ -162,6 +228,7 @@ class NewsServiceImplTest {
 
         //then
         verify(newsRepository).save(any());
+        verify(newsCacheInvalidator).newsChanged(journalist.getId());
         assertEquals(expected, actual);
 
     }
@@ -187,14 +254,9 @@ class NewsServiceImplTest {
                 .withText("New text.")
                 .build()
                 .buildNewsDto();
-        Journalist journalist = JournalistTestData.builder()
-                .build()
-                .buildJournalist();
         Long id = ConstantsForTest.NEWS_ID;
 
-        when(journalistService.findByUsername(newsRequest.getUsername()))
-                .thenReturn(journalist);
-        when(newsRepository.findById(id)).thenReturn(optionalNewsFromDB);
+        when(newsRepository.findWithJournalistById(id)).thenReturn(optionalNewsFromDB);
         when(newsRepository.save(any())).thenReturn(news);
         when(newsMapper.entityToDto(news))
                 .thenReturn(newsFromDB);
@@ -204,6 +266,7 @@ class NewsServiceImplTest {
 
         //then
         verify(newsRepository).save(any());
+        verify(journalistService, never()).findByUsername(any());
 
         assertThat(newsDtoForUpdate)
                 .hasFieldOrPropertyWithValue(News.Fields.text, expected.getText())
@@ -220,8 +283,8 @@ class NewsServiceImplTest {
                 .build().buildNewsRequest();
         String errorMessage = "News with id: " + id + " not found";
 
-        when(newsRepository.findById(id))
-                .thenThrow(new EntityNotFoundException (News.class, id));
+        when(newsRepository.findWithJournalistById(id))
+                .thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException thrown = assertThrows(EntityNotFoundException.class, () -> {
@@ -232,5 +295,35 @@ class NewsServiceImplTest {
         assertEquals(errorMessage, thrown.getMessage());
     }
 
+    @Test
+    void shouldNotUpdateNewsOfAnotherJournalist() {
+        // given
+        Long id = ConstantsForTest.NEWS_ID;
+        NewsRequest newsRequest = new NewsRequest("Title", "New text.", "another-journalist");
+        when(newsRepository.findWithJournalistById(id))
+                .thenReturn(Optional.of(NewsTestData.builder().build().buildNews()));
+
+        // when, then
+        assertThrows(JournalistDoesNotMatchException.class, () -> newsService.update(id, newsRequest));
+        verify(newsRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldNotUpdateNewsOfBlockedJournalist() {
+        // given
+        Long id = ConstantsForTest.NEWS_ID;
+        NewsRequest newsRequest = NewsTestData.builder().build().buildNewsRequest();
+        Journalist blocked = JournalistTestData.builder()
+                .withIsBlocked(true)
+                .build()
+                .buildJournalist();
+        when(newsRepository.findWithJournalistById(id))
+                .thenReturn(Optional.of(NewsTestData.builder().withJournalist(blocked).build().buildNews()));
+
+        // when, then
+        assertThrows(JournalistIsBlockedException.class, () -> newsService.update(id, newsRequest));
+        verify(newsRepository, never()).save(any());
+    }
+
 
 }
\ No newline at end of file
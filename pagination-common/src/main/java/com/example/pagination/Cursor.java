@@ -0,0 +1,60 @@
+package com.example.pagination;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Курсор постраничного просмотра по ключу: дата обновления и id
+ * последней показанной записи. Следующая страница начинается сразу
+ * после этой пары, без пропуска page * size строк.
+ * <p>
+ * Клиенту отдается непрозрачной строкой - 20 байт в Base64 URL.
+ */
+@Getter
+public final class Cursor {
+
+    private static final int LENGTH = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final LocalDateTime updateDate;
+    private final Long id;
+
+    private Cursor(LocalDateTime updateDate, Long id) {
+        this.updateDate = updateDate;
+        this.id = id;
+    }
+
+    public static String encode(LocalDateTime updateDate, Long id) {
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH)
+                .putLong(updateDate.toEpochSecond(ZoneOffset.UTC))
+                .putInt(updateDate.getNano())
+                .putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @throws IllegalArgumentException если строка не является курсором
+     */
+    public static Cursor decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        if (nanos < 0 || nanos > 999_999_999) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return new Cursor(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC), buffer.getLong());
+    }
+
+}
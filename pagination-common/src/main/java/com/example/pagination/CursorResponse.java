@@ -0,0 +1,36 @@
+package com.example.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница при просмотре по курсору: записи и курсор следующей
+ * страницы, без общего количества записей.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    /**
+     * @param cursor строит курсор по последней записи страницы
+     */
+    public static <T> CursorResponse<T> of(Slice<T> slice, Function<T, String> cursor) {
+        List<T> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? cursor.apply(content.get(content.size() - 1))
+                : null;
+        return new CursorResponse<>(content, content.size(), slice.hasNext(), nextCursor);
+    }
+
+}
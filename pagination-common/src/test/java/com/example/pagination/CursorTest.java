@@ -0,0 +1,33 @@
+package com.example.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorTest {
+
+    @Test
+    void shouldDecodeEncodedCursor() {
+        // given
+        LocalDateTime updateDate = LocalDateTime.of(2024, 2, 27, 15, 0, 0, 123_456_000);
+        String encoded = Cursor.encode(updateDate, 42L);
+
+        // when
+        Cursor cursor = Cursor.decode(encoded);
+
+        // then
+        assertEquals(updateDate, cursor.getUpdateDate());
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    void shouldFailDecodeInvalidCursor() {
+        // then
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode("AAAA"));
+    }
+
+}
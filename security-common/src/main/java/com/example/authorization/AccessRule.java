@@ -0,0 +1,26 @@
+package com.example.authorization;
+
+import com.example.identity.Identity;
+
+/**
+ * Правило доступа к операции: маска ролей, любая из которых дает доступ.
+ * Правила создаются один раз как константы, проверка - одно AND по маске
+ * ролей пользователя.
+ */
+public final class AccessRule {
+
+    private final int mask;
+
+    private AccessRule(int mask) {
+        this.mask = mask;
+    }
+
+    public static AccessRule anyOf(Role... roles) {
+        return new AccessRule(Role.maskOf(roles));
+    }
+
+    public boolean allows(Identity identity) {
+        return (identity.roles() & mask) != 0;
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.example.authorization;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Роли пользователей, те же, что в security-service.
+ * <p>
+ * Набор ролей хранится как битовая маска: бит роли - 1 << ordinal.
+ * Маска передается в заголовке от gateway, поэтому новые роли
+ * добавляются только в конец.
+ */
+public enum Role {
+    JOURNALIST,
+    ADMIN,
+    SUBSCRIBER;
+
+    private static final Map<String, Role> BY_NAME = Stream.of(values())
+            .collect(Collectors.toUnmodifiableMap(Role::name, Function.identity()));
+    private static final int ALL = (1 << values().length) - 1;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * @param names названия ролей из токена, неизвестные пропускаются
+     */
+    public static int maskOf(Collection<?> names) {
+        int mask = 0;
+        for (Object name : names) {
+            Role role = BY_NAME.get(String.valueOf(name));
+            if (role != null) {
+                mask |= role.bit();
+            }
+        }
+        return mask;
+    }
+
+    public static int maskOf(Role... roles) {
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= role.bit();
+        }
+        return mask;
+    }
+
+    public static EnumSet<Role> setOf(int mask) {
+        EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+        for (Role role : values()) {
+            if ((mask & role.bit()) != 0) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * @return true, если маска содержит только известные роли
+     */
+    public static boolean isValid(int mask) {
+        return (mask & ~ALL) == 0;
+    }
+
+}
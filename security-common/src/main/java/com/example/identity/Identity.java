@@ -0,0 +1,18 @@
+package com.example.identity;
+
+import com.example.authorization.Role;
+
+/**
+ * Пользователь, проверенный gateway.
+ *
+ * @param subject   email пользователя (sub токена)
+ * @param roles     маска ролей пользователя, см. {@link Role}
+ * @param expiresAt время окончания действия токена, секунды с начала эпохи
+ */
+public record Identity(String subject, int roles, long expiresAt) {
+
+    public boolean hasRole(Role role) {
+        return (roles & role.bit()) != 0;
+    }
+
+}
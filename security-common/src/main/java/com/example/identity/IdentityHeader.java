@@ -0,0 +1,141 @@
+package com.example.identity;
+
+import com.example.authorization.Role;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Заголовок {@value #NAME}, которым gateway передает сервисам уже
+ * проверенного пользователя, чтобы они не проверяли JWT повторно.
+ * <p>
+ * Формат: {@code base64url(sub).маска ролей.exp.base64url(token).base64url(mac)},
+ * где token - первые 16 байт SHA-256 токена из Authorization, а mac - первые
+ * 16 байт HMAC-SHA256 от всего, что до последней точки. Хэш токена привязывает
+ * заголовок к токену: с другим токеном заголовок не принимается.
+ * Ключ HMAC выводится из token.signing.key, который уже есть у gateway и
+ * сервисов, поэтому отдельный секрет не нужен, а подписать заголовок без
+ * ключа токенов нельзя. Проверка - один HMAC по короткой строке, без
+ * разбора JWT и JSON.
+ * <p>
+ * Gateway должен удалять этот заголовок из входящих запросов.
+ */
+public final class IdentityHeader {
+
+    public static final String NAME = "X-Identity";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte[] KEY_PURPOSE = "gateway-identity-header".getBytes(StandardCharsets.UTF_8);
+    private static final int MAC_BYTES = 16;
+    private static final int TOKEN_HASH_BYTES = 16;
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(IdentityHeader::sha256);
+    private static final char SEPARATOR = '.';
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+
+    private IdentityHeader(byte[] tokenSigningKey) {
+        this.key = new SecretKeySpec(hmac(new SecretKeySpec(tokenSigningKey, ALGORITHM), KEY_PURPOSE), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> newMac(key));
+    }
+
+    /**
+     * @param tokenSigningKey token.signing.key в Base64
+     */
+    public static IdentityHeader fromTokenSigningKey(String tokenSigningKey) {
+        return new IdentityHeader(Base64.getDecoder().decode(tokenSigningKey));
+    }
+
+    /**
+     * @return SHA-256 токена
+     */
+    public static byte[] tokenHash(String token) {
+        return SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Создает подписанный заголовок.
+     *
+     * @param tokenHash {@link #tokenHash(String)} токена, для которого создается заголовок
+     * @param roles     маска ролей, см. {@link Role}
+     * @param expiresAt время окончания действия токена, секунды с начала эпохи
+     */
+    public String sign(byte[] tokenHash, String subject, int roles, long expiresAt) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String signed = encoder.encodeToString(subject.getBytes(StandardCharsets.UTF_8))
+                + SEPARATOR + Integer.toHexString(roles)
+                + SEPARATOR + expiresAt
+                + SEPARATOR + encoder.encodeToString(Arrays.copyOf(tokenHash, TOKEN_HASH_BYTES));
+        byte[] signature = Arrays.copyOf(mac.get().doFinal(signed.getBytes(StandardCharsets.UTF_8)), MAC_BYTES);
+        return signed + SEPARATOR + encoder.encodeToString(signature);
+    }
+
+    /**
+     * Проверяет подпись, токен и срок действия заголовка.
+     *
+     * @param token токен, который проверяется вместо JWT
+     * @param now   текущее время, секунды с начала эпохи
+     * @return пользователь или null, если заголовок поврежден, подделан, истек
+     * или создан для другого токена
+     */
+    public Identity verify(String header, String token, long now) {
+        int macStart = header.lastIndexOf(SEPARATOR);
+        int rolesStart = header.indexOf(SEPARATOR);
+        int expStart = rolesStart < 0 ? -1 : header.indexOf(SEPARATOR, rolesStart + 1);
+        int tokenStart = expStart < 0 ? -1 : header.indexOf(SEPARATOR, expStart + 1);
+        if (rolesStart < 0 || expStart < 0 || tokenStart < 0 || macStart <= tokenStart) {
+            return null;
+        }
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(header.substring(macStart + 1));
+            byte[] expected = Arrays.copyOf(
+                    mac.get().doFinal(header.substring(0, macStart).getBytes(StandardCharsets.UTF_8)), MAC_BYTES);
+            if (!MessageDigest.isEqual(expected, signature)) {
+                return null;
+            }
+            byte[] signedTokenHash = Base64.getUrlDecoder().decode(header.substring(tokenStart + 1, macStart));
+            if (!MessageDigest.isEqual(Arrays.copyOf(tokenHash(token), TOKEN_HASH_BYTES), signedTokenHash)) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(header, expStart + 1, tokenStart, 10);
+            int roles = Integer.parseUnsignedInt(header, rolesStart + 1, expStart, 16);
+            if (expiresAt <= now || !Role.isValid(roles)) {
+                return null;
+            }
+            String subject = new String(Base64.getUrlDecoder().decode(header.substring(0, rolesStart)),
+                    StandardCharsets.UTF_8);
+            return new Identity(subject, roles, expiresAt);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[] hmac(SecretKeySpec key, byte[] data) {
+        return newMac(key).doFinal(data);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
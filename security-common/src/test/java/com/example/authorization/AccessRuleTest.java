@@ -0,0 +1,52 @@
+package com.example.authorization;
+
+import com.example.identity.Identity;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessRuleTest {
+
+    private static final AccessRule JOURNALIST_OR_ADMIN = AccessRule.anyOf(Role.JOURNALIST, Role.ADMIN);
+
+    @Test
+    void shouldAllowAnyOfRoles() {
+        // given
+        Identity journalist = identity(Role.maskOf(List.of("JOURNALIST")));
+        Identity admin = identity(Role.maskOf(List.of("ADMIN", "SUBSCRIBER")));
+
+        // when, then
+        assertTrue(JOURNALIST_OR_ADMIN.allows(journalist));
+        assertTrue(JOURNALIST_OR_ADMIN.allows(admin));
+    }
+
+    @Test
+    void shouldDenyOtherRoles() {
+        // given
+        Identity subscriber = identity(Role.maskOf(List.of("SUBSCRIBER")));
+        Identity withoutRoles = identity(Role.maskOf(List.of()));
+
+        // when, then
+        assertFalse(JOURNALIST_OR_ADMIN.allows(subscriber));
+        assertFalse(JOURNALIST_OR_ADMIN.allows(withoutRoles));
+    }
+
+    @Test
+    void shouldSkipUnknownRoleNames() {
+        // when
+        int mask = Role.maskOf(List.of("EDITOR", "ADMIN"));
+
+        // then
+        assertEquals(EnumSet.of(Role.ADMIN), Role.setOf(mask));
+    }
+
+    private static Identity identity(int roles) {
+        return new Identity("anisa@gmail.com", roles, 0);
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.example.identity;
+
+import com.example.authorization.Role;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IdentityHeaderTest {
+
+    private static final String SIGNING_KEY = "413F4428472B4B6250655368566D5970337336763979244226452948404D6351";
+    private static final long NOW = 1_700_000_000L;
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJhbmlzYUBnbWFpbC5jb20ifQ.signature";
+    private static final byte[] TOKEN_HASH = IdentityHeader.tokenHash(TOKEN);
+
+    private final IdentityHeader identityHeader = IdentityHeader.fromTokenSigningKey(SIGNING_KEY);
+
+    @Test
+    void shouldVerifySignedHeader() {
+        // given
+        String header = identityHeader.sign(TOKEN_HASH, "francesca.petrova@gmail.com",
+                Role.maskOf(Role.JOURNALIST, Role.ADMIN), NOW + 60);
+
+        // when
+        Identity identity = identityHeader.verify(header, TOKEN, NOW);
+
+        // then
+        assertEquals(new Identity("francesca.petrova@gmail.com",
+                Role.maskOf(Role.JOURNALIST, Role.ADMIN), NOW + 60), identity);
+    }
+
+    @Test
+    void shouldVerifyHeaderWithoutRoles() {
+        // given
+        String header = identityHeader.sign(TOKEN_HASH, "anisa@gmail.com", 0, NOW + 60);
+
+        // when
+        Identity identity = identityHeader.verify(header, TOKEN, NOW);
+
+        // then
+        assertEquals(0, identity.roles());
+    }
+
+    @Test
+    void shouldRejectChangedRoles() {
+        // given
+        String header = identityHeader.sign(TOKEN_HASH, "anisa@gmail.com", Role.maskOf(Role.SUBSCRIBER), NOW + 60);
+        String subscriber = "." + Integer.toHexString(Role.SUBSCRIBER.bit()) + ".";
+        String admin = "." + Integer.toHexString(Role.ADMIN.bit()) + ".";
+
+        // when
+        Identity identity = identityHeader.verify(header.replace(subscriber, admin), TOKEN, NOW);
+
+        // then
+        assertNull(identity);
+    }
+
+    @Test
+    void shouldRejectHeaderSignedWithAnotherKey() {
+        // given
+        String header = IdentityHeader.fromTokenSigningKey(SIGNING_KEY.replace('4', '5'))
+                .sign(TOKEN_HASH, "anisa@gmail.com", Role.maskOf(Role.ADMIN), NOW + 60);
+
+        // when
+        Identity identity = identityHeader.verify(header, TOKEN, NOW);
+
+        // then
+        assertNull(identity);
+    }
+
+    @Test
+    void shouldRejectHeaderSignedForAnotherToken() {
+        // given
+        String header = identityHeader.sign(TOKEN_HASH, "anisa@gmail.com", Role.maskOf(Role.ADMIN), NOW + 60);
+
+        // when
+        Identity identity = identityHeader.verify(header, TOKEN + "x", NOW);
+
+        // then
+        assertNull(identity);
+    }
+
+    @Test
+    void shouldRejectExpiredHeader() {
+        // given
+        String header = identityHeader.sign(TOKEN_HASH, "anisa@gmail.com", Role.maskOf(Role.ADMIN), NOW);
+
+        // when
+        Identity identity = identityHeader.verify(header, TOKEN, NOW);
+
+        // then
+        assertNull(identity);
+    }
+
+    @Test
+    void shouldRejectMalformedHeader() {
+        assertNull(identityHeader.verify("", TOKEN, NOW));
+        assertNull(identityHeader.verify("a.b", TOKEN, NOW));
+        assertNull(identityHeader.verify("a.b.c.d", TOKEN, NOW));
+        assertNull(identityHeader.verify("a.b.c.!!!", TOKEN, NOW));
+        assertNull(identityHeader.verify("a.b.c.d.!!!", TOKEN, NOW));
+    }
+
+}